@@ -0,0 +1,79 @@
+package br.com.neogrid.challenge.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application for the benchmarks with {@link BenchmarkApplication}, in a temporary directory.
+ * The forks run with the same locale as the tests, the periods are read with it.
+ * @author Divino Martins
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Duser.language=pt", "-Duser.country=BR"})
+public abstract class ApplicationBenchmark {
+	
+	@Param({"10", "1000", "100000", "1000000"})
+	protected int steps;
+	
+	@Param({"UNIFORM", "FEW_DISTINCT", "MAINTENANCE_HEAVY"})
+	protected Distribution distribution;
+	
+	protected List<String> titles;
+	
+	private ConfigurableApplicationContext context;
+	
+	private Path directory;
+	
+	@Setup(Level.Trial)
+	public void startApplication() throws IOException {
+		directory = Files.createTempDirectory("challenge-benchmarks");
+		context = BenchmarkApplication.start(directory);
+		titles = distribution.generate(steps);
+		
+		this.setup();
+	}
+	
+	/**
+	 * Prepares the input of the benchmark once the application is started.
+	 */
+	protected abstract void setup();
+	
+	protected <T> T getBean(Class<T> type) {
+		return context.getBean(type);
+	}
+	
+	@TearDown(Level.Iteration)
+	public void clearOutput() throws IOException {
+		BenchmarkApplication.delete(BenchmarkApplication.getOutput(directory), false);
+	}
+	
+	@TearDown(Level.Trial)
+	public void stopApplication() throws IOException {
+		context.close();
+		
+		BenchmarkApplication.delete(directory, true);
+	}
+
+}
@@ -0,0 +1,38 @@
+package br.com.neogrid.challenge.benchmarks;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import br.com.neogrid.challenge.core.solver.SolverProperties;
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.service.ProcessStepsService;
+
+/**
+ * The whole planning of the titles, from the parse of the durations to the assembly lines.
+ * The period fill is left out of the default solvers because it is quadratic on the number of steps,
+ * it can be selected with -p solver=PERIOD_FILL.
+ * @author Divino Martins
+ *
+ */
+public class AssemblyLineBenchmark extends ApplicationBenchmark {
+	
+	@Param({"DURATION_HISTOGRAM", "PARALLEL_BRANCH_AND_BOUND"})
+	private SolverProperties.Mode solver;
+	
+	private ProcessStepsService processStepsService;
+	
+	@Override
+	protected void setup() {
+		processStepsService = this.getBean(ProcessStepsService.class);
+		
+		this.getBean(SolverProperties.class).setMode(solver);
+	}
+	
+	@Benchmark
+	public List<AssemblyLine> generateAssemblyLine() {
+		return processStepsService.generateAssemblyLine(titles);
+	}
+
+}
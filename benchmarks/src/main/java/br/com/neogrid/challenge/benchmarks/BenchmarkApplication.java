@@ -0,0 +1,76 @@
+package br.com.neogrid.challenge.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.neogrid.challenge.ChallengeNeogridApplication;
+
+/**
+ * Starts the application without the web server, with the storage in a directory of its own
+ * and the files written synchronously, so the time of the writes is measured.
+ * The reader and the time limit of the solver are pinned, so the results do not change with the application.yml.
+ * The periods are read with the locale of the JVM, the same one of the tests (pt_BR) must be used.
+ * @author Divino Martins
+ *
+ */
+public final class BenchmarkApplication {
+	
+	private BenchmarkApplication() {
+	}
+	
+	/**
+	 * @param directory where the input and output directories are created.
+	 * @return the context of the application, it must be closed by the caller.
+	 * @throws IOException
+	 */
+	public static ConfigurableApplicationContext start(Path directory) throws IOException {
+		Files.createDirectories(getInput(directory));
+		Files.createDirectories(getOutput(directory));
+		
+		//Informed as arguments, the default properties would be overridden by the application.yml.
+		return new SpringApplicationBuilder(ChallengeNeogridApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(
+						"--spring.main.banner-mode=off",
+						"--logging.level.root=warn",
+						"--challenge.storage.local.directory-input=" + getInput(directory),
+						"--challenge.storage.local.directory-output=" + getOutput(directory),
+						"--challenge.storage.write-behind.enabled=false",
+						"--challenge.storage.reader=parallel-memory-mapped",
+						"--challenge.solver.max-millis=0"
+					);
+	}
+	
+	public static Path getInput(Path directory) {
+		return directory.resolve("input");
+	}
+	
+	public static Path getOutput(Path directory) {
+		return directory.resolve("output");
+	}
+	
+	/**
+	 * Deletes the files of the directory and its subdirectories.
+	 * @param directory
+	 * @param itself whether the directory itself is deleted too.
+	 * @throws IOException
+	 */
+	public static void delete(Path directory, boolean itself) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+				if(itself
+						|| !file.equals(directory)) {
+					Files.delete(file);
+				}
+			}
+		}
+	}
+
+}
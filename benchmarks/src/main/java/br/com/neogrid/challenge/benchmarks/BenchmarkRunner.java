@@ -0,0 +1,27 @@
+package br.com.neogrid.challenge.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the options of the JMH command line, always with the GC profiler
+ * so the allocation rate of each benchmark is reported next to its time.
+ * @author Divino Martins
+ *
+ */
+public class BenchmarkRunner {
+	
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		CommandLineOptions options = new CommandLineOptions(args);
+		
+		new Runner(new OptionsBuilder()
+				.parent(options)
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+}
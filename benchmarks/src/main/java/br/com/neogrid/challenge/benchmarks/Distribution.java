@@ -0,0 +1,48 @@
+package br.com.neogrid.challenge.benchmarks;
+
+import java.util.List;
+
+/**
+ * Mixes of durations of the titles used by the benchmarks, see {@link WorkloadGenerator}.
+ * The titles are generated with a fixed seed, so every run plans the same steps.
+ * @author Divino Martins
+ *
+ */
+public enum Distribution {
+	
+	/**
+	 * Any duration from 5 to 60 minutes.
+	 */
+	UNIFORM("5-60"),
+	
+	/**
+	 * Only 30, 45 and 60 minutes, like the sample input.
+	 */
+	FEW_DISTINCT("30,45,60"),
+	
+	/**
+	 * A third of maintenances and the rest from 30 to 120 minutes, the hardest to pack.
+	 */
+	MAINTENANCE_HEAVY("maintenance:1,30-120:2");
+	
+	public static final long SEED = 42L;
+	
+	private final String mix;
+	
+	private Distribution(String mix) {
+		this.mix = mix;
+	}
+	
+	public String getMix() {
+		return mix;
+	}
+	
+	/**
+	 * @param steps the number of titles.
+	 * @return the titles, always the same for the same number of steps.
+	 */
+	public List<String> generate(int steps) {
+		return new WorkloadGenerator(mix, SEED).generate(steps);
+	}
+
+}
@@ -0,0 +1,42 @@
+package br.com.neogrid.challenge.benchmarks;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import br.com.neogrid.challenge.core.solver.SolverProperties;
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.output.OutputFormat;
+import br.com.neogrid.challenge.domain.service.FileStorageService.StreamStorage;
+import br.com.neogrid.challenge.domain.service.OutputStreamGenerateService;
+import br.com.neogrid.challenge.domain.service.ProcessStepsService;
+
+/**
+ * Writing of the output file of assembly lines planned once for the trial.
+ * @author Divino Martins
+ *
+ */
+public class OutputBenchmark extends ApplicationBenchmark {
+	
+	@Param({"TEXT", "CSV", "JSON"})
+	private OutputFormat format;
+	
+	private OutputStreamGenerateService outputStreamGenerateService;
+	
+	private List<AssemblyLine> assemblyLines;
+	
+	@Override
+	protected void setup() {
+		outputStreamGenerateService = this.getBean(OutputStreamGenerateService.class);
+		
+		this.getBean(SolverProperties.class).setMode(SolverProperties.Mode.DURATION_HISTOGRAM);
+		assemblyLines = this.getBean(ProcessStepsService.class).generateAssemblyLine(titles);
+	}
+	
+	@Benchmark
+	public StreamStorage createOutputFile() {
+		return outputStreamGenerateService.createOutputFile(assemblyLines, format);
+	}
+
+}
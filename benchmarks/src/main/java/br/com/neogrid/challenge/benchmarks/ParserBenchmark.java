@@ -0,0 +1,29 @@
+package br.com.neogrid.challenge.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+
+import br.com.neogrid.challenge.domain.service.ProcessStepsService;
+
+/**
+ * Reading of the duration of each title.
+ * @author Divino Martins
+ *
+ */
+public class ParserBenchmark extends ApplicationBenchmark {
+	
+	private ProcessStepsService processStepsService;
+	
+	@Override
+	protected void setup() {
+		processStepsService = this.getBean(ProcessStepsService.class);
+	}
+	
+	@Benchmark
+	public void getStepDurationInMinutes(Blackhole blackhole) {
+		for (String title : titles) {
+			blackhole.consume(processStepsService.getStepDurationInMinutes(title));
+		}
+	}
+
+}
@@ -0,0 +1,236 @@
+package br.com.neogrid.challenge.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.neogrid.challenge.core.solver.SolverProperties;
+import br.com.neogrid.challenge.core.storage.StorageProperties;
+import br.com.neogrid.challenge.domain.model.Response;
+import br.com.neogrid.challenge.domain.service.FileStorageService;
+import br.com.neogrid.challenge.domain.service.PlanCacheService;
+import br.com.neogrid.challenge.domain.service.ProcessFileService;
+
+/**
+ * Plans generated input files of growing sizes with {@link ProcessFileService#processInput}
+ * and appends the results of each run to a CSV file, so the runs can be compared over time.
+ * The options are informed as key=value:
+ * sizes, the numbers of lines separated by commas;
+ * mix, a {@link Distribution} or a mix of the {@link WorkloadGenerator};
+ * solver, the {@link SolverProperties.Mode}, the configured one when omitted;
+ * repetitions, the runs of each size;
+ * csv, the file of the results.
+ * @author Divino Martins
+ *
+ */
+public class ScaleTestRunner {
+	
+	private static final String HEADER = "timestamp,lines,mix,solver,reader,wall_millis,peak_heap_bytes,"
+			+ "assembly_lines,lower_bound,optimal,output_bytes,error";
+	
+	private final ConfigurableApplicationContext context;
+	
+	private final Path directory;
+	
+	private final Path csv;
+	
+	public ScaleTestRunner(ConfigurableApplicationContext context, Path directory, Path csv) {
+		this.context = context;
+		this.directory = directory;
+		this.csv = csv;
+	}
+	
+	public static void main(String[] args) throws IOException {
+		Map<String, String> options = new HashMap<>();
+		
+		for (String arg : args) {
+			String[] option = arg.split("=", 2);
+			
+			if(option.length != 2) {
+				throw new IllegalArgumentException("The option must be key=value: " + arg);
+			}
+			
+			options.put(option[0], option[1]);
+		}
+		
+		List<Integer> sizes = new ArrayList<>();
+		
+		for (String size : options.getOrDefault("sizes", "100,1000,10000,100000,1000000,10000000").split(",")) {
+			sizes.add(Integer.valueOf(size.trim()));
+		}
+		
+		String mix = options.getOrDefault("mix", Distribution.UNIFORM.name());
+		int repetitions = Integer.parseInt(options.getOrDefault("repetitions", "1"));
+		Path csv = Path.of(options.getOrDefault("csv", "target/scale-results.csv")).toAbsolutePath();
+		Path directory = Files.createTempDirectory("challenge-scale");
+		
+		try (ConfigurableApplicationContext context = BenchmarkApplication.start(directory)) {
+			if(options.containsKey("solver")) {
+				context.getBean(SolverProperties.class).setMode(SolverProperties.Mode.valueOf(options.get("solver")));
+			}
+			
+			ScaleTestRunner runner = new ScaleTestRunner(context, directory, csv);
+			
+			for (int size : sizes) {
+				runner.run(size, mix, repetitions);
+			}
+		} finally {
+			BenchmarkApplication.delete(directory, true);
+		}
+	}
+	
+	/**
+	 * Generates the input file with the number of lines and plans it the number of times informed.
+	 * @param lines
+	 * @param mix the name of a {@link Distribution} or a mix of the {@link WorkloadGenerator}.
+	 * @param repetitions
+	 * @throws IOException
+	 */
+	public void run(int lines, String mix, int repetitions) throws IOException {
+		String name = "scale_" + lines + ".txt";
+		Path input = BenchmarkApplication.getInput(directory).resolve(name);
+		
+		new WorkloadGenerator(this.getMix(mix), Distribution.SEED).write(input, lines);
+		
+		try {
+			for (int repetition = 0; repetition < repetitions; repetition++) {
+				this.record(this.run(name, lines, mix));
+			}
+		} finally {
+			Files.delete(input);
+		}
+	}
+	
+	private String getMix(String mix) {
+		for (Distribution distribution : Distribution.values()) {
+			if(distribution.name().equalsIgnoreCase(mix)) {
+				return distribution.getMix();
+			}
+		}
+		
+		return mix;
+	}
+	
+	/**
+	 * Plans the input file once, the cache is cleared before and after so every run solves the plan
+	 * and the plan of the previous size does not stay in the heap.
+	 * The peak of the heap is the sum of the peaks of its pools, so it can be above the real peak.
+	 */
+	private List<Object> run(String name, int lines, String mix) throws IOException {
+		ProcessFileService processFileService = context.getBean(ProcessFileService.class);
+		PlanCacheService planCacheService = context.getBean(PlanCacheService.class);
+		List<Object> result = new ArrayList<>();
+		
+		result.add(Instant.now());
+		result.add(lines);
+		result.add(mix);
+		result.add(context.getBean(SolverProperties.class).getMode());
+		result.add(context.getBean(StorageProperties.class).getReader());
+		
+		planCacheService.clear();
+		System.gc();
+		
+		List<MemoryPoolMXBean> pools = new ArrayList<>();
+		
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if(pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+				pools.add(pool);
+			}
+		}
+		
+		long start = System.nanoTime();
+		
+		try {
+			Response response = processFileService.processInput(context.getBean(FileStorageService.class).read(name));
+			
+			result.add((System.nanoTime() - start) / 1_000_000);
+			result.add(this.getPeak(pools));
+			result.add(response.getAssemblyLines().size());
+			result.add(response.getLowerBound());
+			result.add(response.getOptimal());
+			result.add(Files.size(Path.of(response.getOutput().getPath())));
+			result.add("");
+		} catch (RuntimeException ex) {
+			result.add((System.nanoTime() - start) / 1_000_000);
+			result.add(this.getPeak(pools));
+			result.add("");
+			result.add("");
+			result.add("");
+			result.add("");
+			result.add(ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+		} finally {
+			planCacheService.clear();
+			BenchmarkApplication.delete(BenchmarkApplication.getOutput(directory), false);
+		}
+		
+		return result;
+	}
+	
+	private long getPeak(List<MemoryPoolMXBean> pools) {
+		long peak = 0;
+		
+		for (MemoryPoolMXBean pool : pools) {
+			peak += pool.getPeakUsage().getUsed();
+		}
+		
+		return peak;
+	}
+	
+	/**
+	 * Appends the result to the CSV file, writing the header when the file is new.
+	 */
+	private void record(List<Object> result) throws IOException {
+		boolean exists = Files.exists(csv);
+		StringBuilder line = new StringBuilder();
+		
+		for (Object value : result) {
+			if(line.length() > 0) {
+				line.append(',');
+			}
+			
+			line.append(this.escape(String.valueOf(value)));
+		}
+		
+		if(csv.getParent() != null) {
+			Files.createDirectories(csv.getParent());
+		}
+		
+		try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8, 
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			if(!exists) {
+				writer.write(HEADER);
+				writer.newLine();
+			}
+			
+			writer.write(line.toString());
+			writer.newLine();
+		}
+		
+		System.out.println(line);
+	}
+	
+	private String escape(String value) {
+		if(value.contains(",")
+				|| value.contains("\"")
+				|| value.contains("\n")) {
+			return "\"" + value.replace("\"", "\"\"") + "\"";
+		}
+		
+		return value;
+	}
+
+}
@@ -0,0 +1,45 @@
+package br.com.neogrid.challenge.benchmarks;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import br.com.neogrid.challenge.core.storage.PeriodProperties;
+import br.com.neogrid.challenge.domain.model.Step;
+import br.com.neogrid.challenge.domain.service.ProcessStepsService;
+
+/**
+ * Creation of the steps of the titles and the fill of a single period with them.
+ * @author Divino Martins
+ *
+ */
+public class StepsBenchmark extends ApplicationBenchmark {
+	
+	private ProcessStepsService processStepsService;
+	
+	private PeriodProperties periodProperties;
+	
+	private List<Step> generatedSteps;
+	
+	@Override
+	protected void setup() {
+		processStepsService = this.getBean(ProcessStepsService.class);
+		periodProperties = this.getBean(PeriodProperties.class);
+		generatedSteps = processStepsService.generateSteps(titles);
+	}
+	
+	@Benchmark
+	public List<Step> generateSteps() {
+		return processStepsService.generateSteps(titles);
+	}
+	
+	@Benchmark
+	public List<Step> createStepsRecursive() {
+		return processStepsService.createStepsRecursive(
+				generatedSteps, 
+				periodProperties.getMorning().getBegin(), 
+				periodProperties.getMorning().getFinish()
+			);
+	}
+
+}
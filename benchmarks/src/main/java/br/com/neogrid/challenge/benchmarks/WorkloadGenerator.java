@@ -0,0 +1,140 @@
+package br.com.neogrid.challenge.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates titles of steps like the ones of the input file, with the durations drawn from a mix.
+ * The names of the steps have no digits, the only number of a title is its duration.
+ * The mix is a list separated by commas of durations with their weights, e.g. "maintenance:1,30-120:2":
+ * a duration is the word maintenance, a number of minutes or a range of minutes, the weight is 1 when omitted.
+ * @author Divino Martins
+ *
+ */
+public class WorkloadGenerator {
+	
+	private static final String MAINTENANCE = "maintenance";
+	
+	private static final String[] ACTIONS = {
+			"Cutting", "Drilling", "Polishing", "Painting", "Welding", "Inspection", 
+			"Calibration", "Lubrication", "Assembly", "Sanding", "Riveting", "Fueling"
+		};
+	
+	private static final String[] PARTS = {
+			"the base", "the hood", "the frame", "the wheels", "the engine", "the sensors", 
+			"the gears", "the doors", "the steel sheets", "the conveyor belt"
+		};
+	
+	private final Random random;
+	
+	/**
+	 * First and last minutes of each duration of the mix, zero for the maintenances.
+	 */
+	private final int[] first;
+	
+	private final int[] last;
+	
+	/**
+	 * Weights of the durations summed up to each one of them.
+	 */
+	private final int[] weights;
+	
+	/**
+	 * @param mix the durations with their weights.
+	 * @param seed the seed of the titles, the same seed and mix always generate the same titles.
+	 */
+	public WorkloadGenerator(String mix, long seed) {
+		String[] entries = mix.split(",");
+		
+		this.random = new Random(seed);
+		this.first = new int[entries.length];
+		this.last = new int[entries.length];
+		this.weights = new int[entries.length];
+		
+		int total = 0;
+		
+		for (int index = 0; index < entries.length; index++) {
+			String[] entry = entries[index].trim().split(":");
+			String duration = entry[0].trim();
+			
+			try {
+				if(!MAINTENANCE.equalsIgnoreCase(duration)) {
+					String[] range = duration.split("-");
+					
+					first[index] = Integer.parseInt(range[0].trim());
+					last[index] = range.length > 1 ? Integer.parseInt(range[1].trim()) : first[index];
+				}
+				
+				total += entry.length > 1 ? Integer.parseInt(entry[1].trim()) : 1;
+			} catch (NumberFormatException ex) {
+				throw new IllegalArgumentException("Invalid duration of the mix: " + entries[index], ex);
+			}
+			
+			if(first[index] < 0
+					|| last[index] < first[index]) {
+				throw new IllegalArgumentException("Invalid duration of the mix: " + entries[index]);
+			}
+			
+			weights[index] = total;
+		}
+		
+		if(total <= 0) {
+			throw new IllegalArgumentException("The weights of the mix must be positive: " + mix);
+		}
+	}
+	
+	/**
+	 * @return the title of the next step.
+	 */
+	public String nextTitle() {
+		String name = ACTIONS[random.nextInt(ACTIONS.length)] + " of " + PARTS[random.nextInt(PARTS.length)];
+		int draw = random.nextInt(weights[weights.length - 1]);
+		int index = 0;
+		
+		while(weights[index] <= draw) {
+			index++;
+		}
+		
+		if(last[index] == 0) {
+			return name + " " + MAINTENANCE;
+		}
+		
+		return name + " " + (first[index] + random.nextInt(last[index] - first[index] + 1)) + "min";
+	}
+	
+	/**
+	 * @param lines the number of titles.
+	 * @return the titles.
+	 */
+	public List<String> generate(int lines) {
+		List<String> titles = new ArrayList<>(lines);
+		
+		for (int line = 0; line < lines; line++) {
+			titles.add(this.nextTitle());
+		}
+		
+		return titles;
+	}
+	
+	/**
+	 * Writes the titles to the file one per line, without keeping them in memory.
+	 * @param file
+	 * @param lines the number of titles.
+	 * @throws IOException
+	 */
+	public void write(Path file, int lines) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(file, Charset.defaultCharset())) {
+			for (int line = 0; line < lines; line++) {
+				writer.write(this.nextTitle());
+				writer.newLine();
+			}
+		}
+	}
+
+}
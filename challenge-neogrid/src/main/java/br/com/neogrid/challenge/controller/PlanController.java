@@ -0,0 +1,188 @@
+package br.com.neogrid.challenge.controller;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.neogrid.challenge.core.storage.StorageProperties;
+import br.com.neogrid.challenge.core.view.ViewProperties;
+import br.com.neogrid.challenge.domain.exception.ProcessException;
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.BatchResult;
+import br.com.neogrid.challenge.domain.model.PlanJob;
+import br.com.neogrid.challenge.domain.model.PlanPage;
+import br.com.neogrid.challenge.domain.model.Response;
+import br.com.neogrid.challenge.domain.output.OutputFormat;
+import br.com.neogrid.challenge.domain.service.BatchPlanService;
+import br.com.neogrid.challenge.domain.service.PlanCacheService;
+import br.com.neogrid.challenge.domain.service.PlanJobService;
+import br.com.neogrid.challenge.domain.service.ProcessFileService;
+
+/**
+ * API to generate the assembly lines from the titles sent in the request, one title per line or a JSON array.
+ * The output file is only written when persist is informed. The large plans can be submitted as jobs and fetched later,
+ * and the files of the input directory can be planned at once. The plans already generated are read by range.
+ * @author Divino Martins
+ *
+ */
+@RestController
+@RequestMapping("/api/plans")
+public class PlanController {
+	
+	public static final String HEADER_OUTPUT_FILE = "X-Output-File";
+	public static final String HEADER_PLAN_KEY = "X-Plan-Key";
+	
+	@Autowired
+	private ProcessFileService service;
+	
+	@Autowired
+	private PlanJobService planJobService;
+	
+	@Autowired
+	private BatchPlanService batchPlanService;
+	
+	@Autowired
+	private PlanCacheService planCacheService;
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	@Autowired
+	private ViewProperties viewProperties;
+	
+	@PostMapping(consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<AssemblyLine>> planText(
+			@RequestBody String titles,
+			@RequestParam(defaultValue = "false") boolean persist,
+			@RequestParam(required = false) OutputFormat format) {
+		return this.plan(Arrays.asList(titles.split("\\R")), persist, format);
+	}
+	
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<AssemblyLine>> planJson(
+			@RequestBody List<String> titles,
+			@RequestParam(defaultValue = "false") boolean persist,
+			@RequestParam(required = false) OutputFormat format) {
+		return this.plan(titles, persist, format);
+	}
+	
+	@PostMapping(path = "/jobs", consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<PlanJob> submitText(
+			@RequestBody String titles,
+			@RequestParam(defaultValue = "false") boolean persist,
+			@RequestParam(required = false) OutputFormat format) {
+		return this.submit(Arrays.asList(titles.split("\\R")), persist, format);
+	}
+	
+	@PostMapping(path = "/jobs", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<PlanJob> submitJson(
+			@RequestBody List<String> titles,
+			@RequestParam(defaultValue = "false") boolean persist,
+			@RequestParam(required = false) OutputFormat format) {
+		return this.submit(titles, persist, format);
+	}
+	
+	@GetMapping(path = "/jobs/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<PlanJob> getJob(@PathVariable String id) {
+		PlanJob job = planJobService.get(id);
+		
+		if(job == null) {
+			return ResponseEntity.notFound().build();
+		}
+		
+		return ResponseEntity.ok(job);
+	}
+	
+	@GetMapping(path = "/{key}/lines", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<PlanPage<AssemblyLine>> getAssemblyLines(
+			@PathVariable String key,
+			@RequestParam(defaultValue = "0") int offset,
+			@RequestParam(required = false) Integer limit) {
+		Response plan = planCacheService.get(key);
+		
+		if(plan == null) {
+			return ResponseEntity.notFound().build();
+		}
+		
+		return ResponseEntity.ok(PlanPage.of(plan.getAssemblyLines(), offset, this.getLimit(limit)));
+	}
+	
+	@GetMapping(path = "/{key}/titles", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<PlanPage<String>> getTitles(
+			@PathVariable String key,
+			@RequestParam(defaultValue = "0") int offset,
+			@RequestParam(required = false) Integer limit) {
+		Response plan = planCacheService.get(key);
+		
+		if(plan == null) {
+			return ResponseEntity.notFound().build();
+		}
+		
+		return ResponseEntity.ok(PlanPage.of(plan.getTitles(), offset, this.getLimit(limit)));
+	}
+	
+	@PostMapping(path = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+	public BatchResult processBatch(@RequestParam(required = false) String glob) {
+		return batchPlanService.process(glob);
+	}
+	
+	@ExceptionHandler(RejectedExecutionException.class)
+	@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+	public Map<String, String> handleRejectedExecutionException(RejectedExecutionException ex) {
+		return Map.of("message", "There are too many plans waiting, try again later.");
+	}
+	
+	@ExceptionHandler(ProcessException.class)
+	@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+	public Map<String, String> handleProcessException(ProcessException ex) {
+		return Map.of("message", ex.getMessage());
+	}
+	
+	private ResponseEntity<List<AssemblyLine>> plan(List<String> titles, boolean persist, OutputFormat format) {
+		Response response = service.processTitles(titles, this.getOutputFormat(persist, format));
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok().header(HEADER_PLAN_KEY, response.getKey());
+		
+		if(response.getOutput() != null) {
+			builder.header(HEADER_OUTPUT_FILE, response.getOutput().getName());
+		}
+		
+		return builder.body(response.getAssemblyLines());
+	}
+	
+	private ResponseEntity<PlanJob> submit(List<String> titles, boolean persist, OutputFormat format) {
+		PlanJob job = planJobService.submit(titles, this.getOutputFormat(persist, format));
+		
+		return ResponseEntity.accepted()
+				.location(URI.create("/api/plans/jobs/" + job.getId()))
+				.body(job);
+	}
+	
+	private int getLimit(Integer limit) {
+		return Math.min(limit != null ? limit : viewProperties.getPageSize(), viewProperties.getMaxPageSize());
+	}
+	
+	private OutputFormat getOutputFormat(boolean persist, OutputFormat format) {
+		if(!persist) {
+			return null;
+		}
+		
+		return format != null ? format : storageProperties.getOutputFormat();
+	}
+
+}
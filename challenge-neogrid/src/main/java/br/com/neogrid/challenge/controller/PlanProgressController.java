@@ -0,0 +1,160 @@
+package br.com.neogrid.challenge.controller;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import br.com.neogrid.challenge.core.job.JobProperties;
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.PlanProgress;
+import br.com.neogrid.challenge.domain.model.Response;
+import br.com.neogrid.challenge.domain.service.FileStorageService;
+import br.com.neogrid.challenge.domain.service.PlanListener;
+import br.com.neogrid.challenge.domain.service.ProcessFileService;
+
+/**
+ * Streams the progress of the solving as Server-Sent Events, followed by each assembly line as soon as it is final.
+ * The events are progress, assembly-line, done and error. The plans are solved on the executor of the jobs.
+ * While the plan is solved the progress only carries the best number of lines found so far, with linesClosed 0:
+ * the assembly lines are final, and closed one by one, only once the solve ends.
+ * When the stream times out or the client is gone, a plan still waiting is not solved and the events of a running one are dropped.
+ * @author Divino Martins
+ *
+ */
+@RestController
+@RequestMapping("/api/plans/progress")
+public class PlanProgressController {
+	
+	public static final String EVENT_PROGRESS = "progress";
+	public static final String EVENT_ASSEMBLY_LINE = "assembly-line";
+	public static final String EVENT_DONE = "done";
+	public static final String EVENT_ERROR = "error";
+	
+	@Autowired
+	private ProcessFileService service;
+	
+	@Autowired
+	private FileStorageService fileStorageService;
+	
+	@Autowired
+	private ThreadPoolExecutor planJobExecutor;
+	
+	@Autowired
+	private JobProperties jobProperties;
+	
+	/**
+	 * Plans the standard file (input.txt), like the index page.
+	 */
+	@GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamInput() {
+		return this.stream(listener -> service.processInput(fileStorageService.read(), listener));
+	}
+	
+	@PostMapping(consumes = MediaType.TEXT_PLAIN_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamText(@RequestBody String titles) {
+		List<String> lines = Arrays.asList(titles.split("\\R"));
+		
+		return this.stream(listener -> service.processTitles(lines, null, listener));
+	}
+	
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamJson(@RequestBody List<String> titles) {
+		return this.stream(listener -> service.processTitles(titles, null, listener));
+	}
+	
+	private SseEmitter stream(Function<PlanListener, Response> process) {
+		SseEmitter emitter = new SseEmitter(jobProperties.getStreamTimeout().toMillis());
+		EmitterListener listener = new EmitterListener(emitter);
+		
+		emitter.onTimeout(() -> {
+			listener.close();
+			emitter.complete();
+		});
+		emitter.onError(error -> listener.close());
+		emitter.onCompletion(listener::close);
+		
+		try {
+			listener.plan = planJobExecutor.submit(() -> {
+				try {
+					Response response = process.apply(listener);
+					
+					listener.send(EVENT_DONE, Map.of(
+							"assemblyLines", response.getAssemblyLines().size(),
+							"optimal", Boolean.TRUE.equals(response.getOptimal())
+						));
+				} catch (RuntimeException ex) {
+					listener.send(EVENT_ERROR, Map.of("message", String.valueOf(ex.getMessage())));
+				} finally {
+					emitter.complete();
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			listener.send(EVENT_ERROR, Map.of("message", "There are too many plans waiting, try again later."));
+			emitter.complete();
+		}
+		
+		return emitter;
+	}
+	
+	/**
+	 * Sends the events to the emitter, once the client is gone or the emitter ended the next events are dropped.
+	 */
+	private static class EmitterListener implements PlanListener {
+		
+		private final SseEmitter emitter;
+		private boolean closed;
+		private volatile Future<?> plan;
+		
+		private EmitterListener(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+		
+		@Override
+		public void onProgress(PlanProgress progress) {
+			this.send(EVENT_PROGRESS, progress);
+		}
+		
+		@Override
+		public void onAssemblyLine(AssemblyLine assemblyLine) {
+			this.send(EVENT_ASSEMBLY_LINE, assemblyLine);
+		}
+		
+		/**
+		 * Drops the next events and cancels the plan when it did not start yet.
+		 */
+		private synchronized void close() {
+			closed = true;
+			
+			if(plan != null) {
+				plan.cancel(false);
+			}
+		}
+		
+		private synchronized void send(String name, Object data) {
+			if(closed) {
+				return;
+			}
+			
+			try {
+				emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+			} catch (IOException | IllegalStateException ex) {
+				closed = true;
+			}
+		}
+	}
+
+}
@@ -1,11 +1,15 @@
 package br.com.neogrid.challenge.controller;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
+import br.com.neogrid.challenge.core.view.ViewProperties;
 import br.com.neogrid.challenge.domain.exception.ProcessException;
+import br.com.neogrid.challenge.domain.model.PlanPage;
 import br.com.neogrid.challenge.domain.model.Response;
 import br.com.neogrid.challenge.domain.service.ProcessFileService;
 
@@ -15,15 +19,26 @@ public class ProcessFileController {
 	@Autowired
 	private ProcessFileService service;
 	
+	@Autowired
+	private ViewProperties viewProperties;
+	
+	/**
+	 * Only the first page of the titles and of the assembly lines is rendered, the page loads the next ones
+	 * from the plan kept in the cache.
+	 */
 	@GetMapping("/")
 	public String index(Model model) {
+		model.addAttribute("pageSize", viewProperties.getPageSize());
+		
 		try {
 			Response response = service.start();
 		
 			model.addAttribute("input", response.getInput());
 			model.addAttribute("output", response.getOutput());
-			model.addAttribute("titles", response.getTitles());
-			model.addAttribute("assemblyLines", response.getAssemblyLines());
+			model.addAttribute("titles", this.firstPage(response.getTitles()));
+			model.addAttribute("assemblyLines", this.firstPage(response.getAssemblyLines()));
+			model.addAttribute("optimal", response.getOptimal());
+			model.addAttribute("planKey", response.getKey());
 		} catch (ProcessException ex) {
 			Response response = ex.getResponse();
 			
@@ -33,7 +48,7 @@ public class ProcessFileController {
 				);
 			
 			if(response != null) {
-				model.addAttribute("titles", response.getTitles());
+				model.addAttribute("titles", this.firstPage(response.getTitles()));
 				model.addAttribute("input", response.getInput());
 				
 				if(response.getOutput() != null) {
@@ -43,4 +58,8 @@ public class ProcessFileController {
 		}
 		return "index";
 	}
+	
+	private <T> PlanPage<T> firstPage(List<T> list) {
+		return list == null ? null : PlanPage.of(list, 0, viewProperties.getPageSize());
+	}
 }
@@ -0,0 +1,34 @@
+package br.com.neogrid.challenge.core.batch;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.neogrid.challenge.core.threads.DaemonThreadFactory;
+
+/**
+ * Beans used to plan all files of the input directory.
+ * @author Divino Martins
+ *
+ */
+@Configuration
+public class BatchConfig {
+	
+	/**
+	 * Executor of the input files of the batches, the files beyond the number of threads wait in the queue.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ThreadPoolExecutor batchExecutor(BatchProperties batchProperties) {
+		return new ThreadPoolExecutor(
+				batchProperties.getThreads(), 
+				batchProperties.getThreads(), 
+				0, 
+				TimeUnit.MILLISECONDS, 
+				new LinkedBlockingQueue<>(),
+				new DaemonThreadFactory("batch-")
+			);
+	}
+}
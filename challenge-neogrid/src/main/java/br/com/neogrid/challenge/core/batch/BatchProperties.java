@@ -0,0 +1,30 @@
+package br.com.neogrid.challenge.core.batch;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties referring to the planning of all files of the input directory.
+ * @author Divino Martins
+ *
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("challenge.batch")
+public class BatchProperties {
+	
+	/**
+	 * Number of input files planned at the same time.
+	 */
+	private Integer threads = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * Pattern of the names of the input files planned when none is informed.
+	 */
+	private String glob = "*.txt";
+
+}
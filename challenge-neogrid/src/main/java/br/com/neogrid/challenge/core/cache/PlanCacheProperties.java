@@ -0,0 +1,32 @@
+package br.com.neogrid.challenge.core.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties referring to the cache of the assembly lines already generated.
+ * @author Divino Martins
+ *
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("challenge.cache")
+public class PlanCacheProperties {
+	
+	/**
+	 * Maximum number of plans kept, the least recently used is evicted first. Zero disables the cache.
+	 */
+	private Integer maxEntries = 32;
+	
+	/**
+	 * Time a plan is kept after it was generated.
+	 */
+	private Duration maxAge = Duration.ofMinutes(10);
+
+}
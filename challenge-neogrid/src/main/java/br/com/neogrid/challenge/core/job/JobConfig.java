@@ -0,0 +1,35 @@
+package br.com.neogrid.challenge.core.job;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.neogrid.challenge.core.threads.DaemonThreadFactory;
+
+/**
+ * Beans used to generate the plans submitted in background.
+ * @author Divino Martins
+ *
+ */
+@Configuration
+public class JobConfig {
+	
+	/**
+	 * Executor of the plan jobs, bounded so the bursts are rejected instead of piling up in memory.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ThreadPoolExecutor planJobExecutor(JobProperties jobProperties) {
+		return new ThreadPoolExecutor(
+				jobProperties.getThreads(), 
+				jobProperties.getThreads(), 
+				0, 
+				TimeUnit.MILLISECONDS, 
+				new ArrayBlockingQueue<>(jobProperties.getQueueCapacity()),
+				new DaemonThreadFactory("plan-job-"),
+				new ThreadPoolExecutor.AbortPolicy()
+			);
+	}
+}
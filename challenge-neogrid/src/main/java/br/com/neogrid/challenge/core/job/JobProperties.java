@@ -0,0 +1,42 @@
+package br.com.neogrid.challenge.core.job;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties referring to the plans submitted to be generated in background.
+ * @author Divino Martins
+ *
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("challenge.job")
+public class JobProperties {
+	
+	/**
+	 * Number of plans generated at the same time.
+	 */
+	private Integer threads = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * Maximum number of plans waiting to be generated, the submissions beyond it are rejected.
+	 */
+	private Integer queueCapacity = 100;
+	
+	/**
+	 * Time the result of a plan is kept after it finished.
+	 */
+	private Duration retention = Duration.ofMinutes(10);
+	
+	/**
+	 * Time the progress of a plan is streamed, after it the stream is closed and the plan is no longer followed.
+	 */
+	private Duration streamTimeout = Duration.ofMinutes(5);
+
+}
@@ -0,0 +1,110 @@
+package br.com.neogrid.challenge.core.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters of the stages of the planning and of the solver, published with percentile histograms
+ * so the latency of each stage can be followed on Prometheus.
+ * @author Divino Martins
+ *
+ */
+@Component
+public class PlanMetrics {
+	
+	public static final String STAGE_PARSE = "parse";
+	public static final String STAGE_STEPS = "steps";
+	public static final String STAGE_SOLVE = "solve";
+	public static final String STAGE_ASSEMBLY_LINES = "assembly-lines";
+	public static final String STAGE_OUTPUT = "output";
+	public static final String STAGE_SAVE = "save";
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	private final Map<String, Timer> stages = new ConcurrentHashMap<>();
+	
+	private DistributionSummary lines;
+	
+	private DistributionSummary utilization;
+	
+	private Counter backtracks;
+	
+	@PostConstruct
+	public void register() {
+		lines = DistributionSummary.builder("challenge.solver.lines")
+				.description("Assembly lines opened by each plan")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		utilization = DistributionSummary.builder("challenge.solver.utilization")
+				.description("Fraction of the time of the periods of the assembly lines filled by steps")
+				.publishPercentiles(0.05, 0.5, 0.95)
+				.register(meterRegistry);
+		backtracks = Counter.builder("challenge.solver.backtracks")
+				.description("Combinations of steps evaluated and discarded by the branch-and-bound search")
+				.register(meterRegistry);
+	}
+	
+	/**
+	 * Times the stage of the planning, including the failures.
+	 * @param stage
+	 * @param task
+	 * @return the result of the task.
+	 */
+	public <T> T record(String stage, Supplier<T> task) {
+		return this.stage(stage).record(task);
+	}
+	
+	public void record(String stage, Runnable task) {
+		this.stage(stage).record(task);
+	}
+	
+	/**
+	 * Starts timing a stage that ends in another call, like a channel written until it is closed.
+	 * @return the sample to stop with {@link #stop(String, Timer.Sample)}.
+	 */
+	public Timer.Sample start() {
+		return Timer.start(meterRegistry);
+	}
+	
+	public void stop(String stage, Timer.Sample sample) {
+		sample.stop(this.stage(stage));
+	}
+	
+	/**
+	 * @param assemblyLines the number of assembly lines of the plan.
+	 * @param stepMinutes the total duration of the steps.
+	 * @param periodMinutes the length of the periods of one assembly line.
+	 */
+	public void recordPlan(int assemblyLines, long stepMinutes, long periodMinutes) {
+		lines.record(assemblyLines);
+		
+		if(assemblyLines > 0) {
+			utilization.record((double) stepMinutes / (assemblyLines * periodMinutes));
+		}
+	}
+	
+	public void recordBacktracks(long count) {
+		backtracks.increment(count);
+	}
+	
+	private Timer stage(String stage) {
+		return stages.computeIfAbsent(stage, name -> Timer.builder("challenge.plan.stage")
+				.description("Time of each stage of the planning")
+				.tag("stage", name)
+				.publishPercentileHistogram()
+				.register(meterRegistry));
+	}
+
+}
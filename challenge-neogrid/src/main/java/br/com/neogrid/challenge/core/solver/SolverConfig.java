@@ -0,0 +1,23 @@
+package br.com.neogrid.challenge.core.solver;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans used by the solver that distributes the steps on the assembly lines.
+ * @author Divino Martins
+ *
+ */
+@Configuration
+public class SolverConfig {
+	
+	/**
+	 * Pool of the parallel branch-and-bound and of the chunked parsing, kept apart from the common pool used by parallel streams.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ForkJoinPool solverForkJoinPool(SolverProperties solverProperties) {
+		return new ForkJoinPool(solverProperties.getParallelism());
+	}
+}
@@ -0,0 +1,65 @@
+package br.com.neogrid.challenge.core.solver;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties referring to the solver that distributes the steps on the assembly lines.
+ * @author Divino Martins
+ *
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("challenge.solver")
+public class SolverProperties {
+	
+	/**
+	 * Strategy used to distribute the steps on the assembly lines.
+	 */
+	private Mode mode = Mode.PERIOD_FILL;
+	
+	/**
+	 * Maximum number of backtracks of the branch-and-bound for each number of assembly lines tried.
+	 * When it is reached, that number of lines is not proven infeasible and the solver bisects up to the best-fit packing.
+	 */
+	private Long backtrackLimit = 100_000L;
+	
+	/**
+	 * Number of workers of the pool used by the parallel branch-and-bound.
+	 */
+	private Integer parallelism = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * Time limit in milliseconds of the search for the minimum number of assembly lines, zero for no limit.
+	 * When it is reached, the best plan found so far is returned and it is not proven optimal.
+	 */
+	private Long maxMillis = 0L;
+	
+	public enum Mode {
+		
+		/**
+		 * Fills one period after another, with the number of assembly lines defined by the total time of the steps.
+		 */
+		PERIOD_FILL,
+		
+		/**
+		 * The period fill on the number of steps of each distinct duration, as a bounded knapsack.
+		 * Suits inputs with many steps and few distinct durations.
+		 */
+		DURATION_HISTOGRAM,
+		
+		/**
+		 * Searches for the minimum number of assembly lines, each one with the morning and afternoon periods as bins.
+		 */
+		BRANCH_AND_BOUND,
+		
+		/**
+		 * The branch-and-bound searching several numbers of assembly lines and subtrees at the same time on a fork/join pool.
+		 */
+		PARALLEL_BRANCH_AND_BOUND
+	}
+}
@@ -1,10 +1,13 @@
 package br.com.neogrid.challenge.core.storage;
 
 import java.nio.file.Path;
+import java.time.Duration;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import br.com.neogrid.challenge.domain.output.OutputFormat;
+
 import lombok.Getter;
 import lombok.Setter;
 
@@ -20,7 +23,19 @@ import lombok.Setter;
 public class StorageProperties {
 	
 	private Local local = new Local();
-
+	
+	private WriteBehind writeBehind = new WriteBehind();
+	
+	/**
+	 * How the input file is read.
+	 */
+	private Reader reader = Reader.STREAM;
+	
+	/**
+	 * Format of the output file with the assembly lines.
+	 */
+	private OutputFormat outputFormat = OutputFormat.TEXT;
+	
 	@Getter
 	@Setter
 	public class Local {
@@ -35,4 +50,69 @@ public class StorageProperties {
 		private Path directoryOutput;
 		
 	}
+	
+	@Getter
+	@Setter
+	public class WriteBehind {
+		
+		/**
+		 * Whether the output files are written by a background thread, after the response is returned.
+		 */
+		private boolean enabled = false;
+		
+		/**
+		 * Maximum number of chunks of the files created, and of files saved, waiting to be written.
+		 * Writing or saving blocks while the queue is full.
+		 */
+		private Integer queueCapacity = 64;
+		
+		/**
+		 * Maximum number of chunks and files written before the completed files are synchronized with the disk together.
+		 */
+		private Integer maxBatch = 16;
+		
+		/**
+		 * When the write of a file is considered complete.
+		 */
+		private Durability durability = Durability.FSYNC;
+		
+		/**
+		 * Maximum time that reading a file waits for it to be written.
+		 */
+		private Duration maxWait = Duration.ofMinutes(1);
+	
+	}
+	
+	public enum Durability {
+		
+		/**
+		 * The file is complete when it was handed to the operating system.
+		 */
+		WRITTEN,
+		
+		/**
+		 * The file is complete when it was synchronized with the disk, once for each batch.
+		 */
+		FSYNC
+	}
+	
+	public enum Reader {
+		
+		/**
+		 * Reads the lines from the input stream of the file.
+		 */
+		STREAM,
+		
+		/**
+		 * Maps the input file in memory and decodes the lines from the mapped buffer.
+		 * Used only when the input has a path, otherwise the stream is read.
+		 */
+		MEMORY_MAPPED,
+		
+		/**
+		 * Maps the input file in memory, splits it at line breaks and parses each chunk on a worker of the solver pool.
+		 * Used only when the input has a path, otherwise the stream is read.
+		 */
+		PARALLEL_MEMORY_MAPPED
+	}
 }
@@ -0,0 +1,33 @@
+package br.com.neogrid.challenge.core.threads;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the daemon threads of the executors, numbered after the prefix of their names,
+ * so the executors do not keep the application running when it is shut down.
+ * @author Divino Martins
+ *
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+	
+	private final String prefix;
+	
+	private final AtomicInteger number = new AtomicInteger();
+	
+	/**
+	 * @param prefix prefix of the names of the threads, followed by their number.
+	 */
+	public DaemonThreadFactory(String prefix) {
+		this.prefix = prefix;
+	}
+	
+	@Override
+	public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, prefix + number.incrementAndGet());
+		thread.setDaemon(true);
+		
+		return thread;
+	}
+
+}
@@ -0,0 +1,47 @@
+package br.com.neogrid.challenge.core.threads;
+
+import java.util.concurrent.ExecutorService;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Beans used to handle the requests on virtual threads.
+ * @author Divino Martins
+ *
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "challenge.threads", name = "mode", havingValue = "virtual")
+public class ThreadsConfig {
+	
+	/**
+	 * Executor of the requests, one thread for each request so the blocking reads and writes of the files
+	 * do not hold the threads of a fixed pool.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService requestExecutor(ThreadsProperties threadsProperties) {
+		if(!VirtualThreads.isSupported()) {
+			log.warn("The runtime has no virtual threads, the requests are handled by at most {} platform threads and {} wait for them.", 
+					threadsProperties.getMaxPlatformThreads(), threadsProperties.getPlatformQueueCapacity());
+		}
+		
+		return VirtualThreads.newThreadPerTaskExecutor("request-", 
+				threadsProperties.getMaxPlatformThreads(), threadsProperties.getPlatformQueueCapacity());
+	}
+	
+	/**
+	 * Replaces the pool of the connectors of Tomcat by the executor of the requests.
+	 */
+	@Bean
+	public TomcatProtocolHandlerCustomizer<ProtocolHandler> requestExecutorCustomizer(
+			@Qualifier("requestExecutor") ExecutorService requestExecutor) {
+		return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+	}
+}
@@ -0,0 +1,48 @@
+package br.com.neogrid.challenge.core.threads;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties referring to the threads that handle the requests.
+ * @author Divino Martins
+ *
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("challenge.threads")
+public class ThreadsProperties {
+	
+	/**
+	 * Threads that handle the requests and the reading and writing of the files.
+	 */
+	private Mode mode = Mode.PLATFORM;
+	
+	/**
+	 * Maximum number of platform threads that handle the requests in the virtual mode when the runtime has no virtual threads.
+	 */
+	private Integer maxPlatformThreads = 200;
+	
+	/**
+	 * Maximum number of requests waiting for a platform thread in the virtual mode when the runtime has no virtual threads,
+	 * the requests beyond it are rejected.
+	 */
+	private Integer platformQueueCapacity = 100;
+	
+	public enum Mode {
+		/**
+		 * The requests are handled by the pool of the server.
+		 */
+		PLATFORM,
+		/**
+		 * Each request is handled by a new virtual thread and the solving is moved to the pool of the solver.
+		 * The runtimes without virtual threads (before Java 21) use a bounded pool of platform threads, with a warning.
+		 */
+		VIRTUAL
+	}
+
+}
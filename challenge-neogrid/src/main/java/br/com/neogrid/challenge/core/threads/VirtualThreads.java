@@ -0,0 +1,72 @@
+package br.com.neogrid.challenge.core.threads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the executors of virtual threads when the runtime has them. The application is compiled for Java 11,
+ * so the executor of Java 21 is found by reflection.
+ * @author Divino Martins
+ *
+ */
+public final class VirtualThreads {
+	
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findNewVirtualThreadPerTaskExecutor();
+	
+	private VirtualThreads() {
+	}
+	
+	/**
+	 * @return whether the runtime creates virtual threads.
+	 */
+	public static boolean isSupported() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+	
+	/**
+	 * Creates an executor that starts a new virtual thread for each task.
+	 * Without virtual threads, the tasks run on a bounded pool of platform threads and the ones beyond it wait in a bounded queue,
+	 * the tasks beyond the queue are rejected and the idle threads are stopped.
+	 * @param name prefix of the name of the platform threads.
+	 * @param maxThreads maximum number of platform threads when there are no virtual threads.
+	 * @param queueCapacity maximum number of tasks waiting for a platform thread when there are no virtual threads.
+	 * @return the executor, never null.
+	 */
+	public static ExecutorService newThreadPerTaskExecutor(String name, int maxThreads, int queueCapacity) {
+		if(isSupported()) {
+			try {
+				return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+			} catch (IllegalAccessException | InvocationTargetException ex) {
+				throw new IllegalStateException("It was not possible to create the executor of virtual threads.", ex);
+			}
+		}
+		
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				maxThreads, 
+				maxThreads, 
+				60, 
+				TimeUnit.SECONDS, 
+				new ArrayBlockingQueue<>(queueCapacity), 
+				new DaemonThreadFactory(name),
+				new ThreadPoolExecutor.AbortPolicy()
+			);
+		
+		executor.allowCoreThreadTimeOut(true);
+		
+		return executor;
+	}
+	
+	private static Method findNewVirtualThreadPerTaskExecutor() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException ex) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,30 @@
+package br.com.neogrid.challenge.core.view;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties referring to the page with the result of the processing.
+ * @author Divino Martins
+ *
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("challenge.view")
+public class ViewProperties {
+	
+	/**
+	 * Number of titles and of assembly lines rendered with the page, the next ones are loaded on demand.
+	 */
+	private Integer pageSize = 50;
+	
+	/**
+	 * Maximum number of items returned by each request of the pages.
+	 */
+	private Integer maxPageSize = 500;
+
+}
@@ -0,0 +1,47 @@
+package br.com.neogrid.challenge.core.watch;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Properties referring to the planning of the files dropped in the input directory.
+ * @author Divino Martins
+ *
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("challenge.watch")
+public class WatchProperties {
+	
+	/**
+	 * Whether the input directory is watched.
+	 */
+	private boolean enabled = false;
+	
+	/**
+	 * Pattern of the names of the files planned.
+	 */
+	private String glob = "*.txt";
+	
+	/**
+	 * Time without changes after which the file is considered completely written.
+	 */
+	private Duration debounce = Duration.ofSeconds(1);
+	
+	/**
+	 * Number of files planned at the same time.
+	 */
+	private Integer threads = 2;
+	
+	/**
+	 * Maximum number of files waiting to be planned, the others wait in the directory until there is room.
+	 */
+	private Integer queueCapacity = 50;
+
+}
@@ -0,0 +1,25 @@
+package br.com.neogrid.challenge.domain.model;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class AssemblyPlan {
+	
+	private List<AssemblyLine> assemblyLines;
+	
+	/**
+	 * Minimum number of assembly lines needed by the steps.
+	 */
+	private Integer lowerBound;
+	
+	/**
+	 * Whether it is proven that no plan uses fewer assembly lines.
+	 * It is false when the time limit of the solver was reached before the proof.
+	 */
+	private boolean optimal;
+
+}
@@ -0,0 +1,44 @@
+package br.com.neogrid.challenge.domain.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Summary of the planning of the files of the input directory, written as the manifest of the batch.
+ * @author Divino Martins
+ *
+ */
+@Builder
+@Data
+public class BatchResult {
+	
+	private String glob;
+	private Instant started;
+	private Long millis;
+	private Integer done;
+	private Integer failed;
+	private String manifest;
+	private List<BatchFile> files;
+	
+	@Builder
+	@Data
+	public static class BatchFile {
+		
+		private String input;
+		private String output;
+		private Status status;
+		private Integer assemblyLines;
+		private Boolean optimal;
+		private Long millis;
+		private String message;
+	}
+	
+	public enum Status {
+		DONE,
+		FAILED
+	}
+
+}
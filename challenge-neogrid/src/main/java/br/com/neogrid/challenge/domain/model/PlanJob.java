@@ -0,0 +1,34 @@
+package br.com.neogrid.challenge.domain.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Plan submitted to be generated in background. A new instance is stored at each change of status.
+ * @author Divino Martins
+ *
+ */
+@Builder(toBuilder = true)
+@Data
+public class PlanJob {
+	
+	private String id;
+	private Status status;
+	private Instant submitted;
+	private Instant finished;
+	private List<AssemblyLine> assemblyLines;
+	private Boolean optimal;
+	private String outputFile;
+	private String message;
+	
+	public enum Status {
+		QUEUED,
+		RUNNING,
+		DONE,
+		FAILED
+	}
+
+}
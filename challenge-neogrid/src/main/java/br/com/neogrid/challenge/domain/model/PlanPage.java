@@ -0,0 +1,38 @@
+package br.com.neogrid.challenge.domain.model;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Range of the titles or of the assembly lines of a plan already generated.
+ * @author Divino Martins
+ *
+ */
+@Builder
+@Data
+public class PlanPage<T> {
+	
+	private Integer total;
+	private Integer offset;
+	private List<T> items;
+	
+	/**
+	 * @param list
+	 * @param offset the index of the first item, limited to the size of the list.
+	 * @param limit the maximum number of items.
+	 * @return the page with a view of the items of the range.
+	 */
+	public static <T> PlanPage<T> of(List<T> list, int offset, int limit) {
+		int from = Math.min(Math.max(offset, 0), list.size());
+		int to = (int) Math.min((long) from + Math.max(limit, 0), list.size());
+		
+		return PlanPage.<T>builder()
+				.total(list.size())
+				.offset(from)
+				.items(list.subList(from, to))
+				.build();
+	}
+
+}
@@ -0,0 +1,35 @@
+package br.com.neogrid.challenge.domain.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Progress of the generation of a plan.
+ * @author Divino Martins
+ *
+ */
+@Builder
+@Data
+public class PlanProgress {
+	
+	/**
+	 * Number of assembly lines already final.
+	 */
+	private Integer linesClosed;
+	
+	/**
+	 * Number of steps not in a final assembly line yet.
+	 */
+	private Integer stepsLeft;
+	
+	/**
+	 * Number of assembly lines of the best plan found so far, null before the first one.
+	 */
+	private Integer bestLines;
+	
+	/**
+	 * Time since the solving started.
+	 */
+	private Long elapsedMillis;
+
+}
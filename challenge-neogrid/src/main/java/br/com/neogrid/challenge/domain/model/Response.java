@@ -14,5 +14,16 @@ public class Response {
 	private StreamStorage output;
 	private List<String> titles;
 	private List<AssemblyLine> assemblyLines;
+	private Boolean optimal;
 	
+	/**
+	 * Minimum number of assembly lines that the steps could fit in, to compare with the assembly lines generated.
+	 */
+	private Integer lowerBound;
+	
+	/**
+	 * Key of the plan in the cache, used to fetch its titles and assembly lines by range.
+	 */
+	private String key;
+
 }
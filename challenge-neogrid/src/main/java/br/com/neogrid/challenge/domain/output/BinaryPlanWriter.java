@@ -0,0 +1,119 @@
+package br.com.neogrid.challenge.domain.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.Step;
+
+/**
+ * Writes the assembly lines as binary records in big-endian, after the magic "ALP1":
+ * - 'T', int length, the title in UTF-8: adds the title to the dictionary, the first title is the 0;
+ * - 'L', int number, int steps: an assembly line followed by the records of its steps;
+ * - 'S', int title, short minute of the day of the start time, short minutes or -1 without duration: a step;
+ * - 'E': the end of the plan.
+ * The titles of an assembly line are added to the dictionary before its record, so the records of the steps
+ * have always the same length. The seconds of the start times are not written.
+ * @author Divino Martins
+ *
+ */
+public class BinaryPlanWriter implements PlanWriter {
+	
+	public static final byte[] MAGIC = {'A', 'L', 'P', '1'};
+	public static final byte TITLE = 'T';
+	public static final byte LINE = 'L';
+	public static final byte STEP = 'S';
+	public static final byte END = 'E';
+	
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int MINUTES_BY_HOUR = 60;
+	
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	private final Map<String, Integer> dictionary = new HashMap<>();
+	
+	public BinaryPlanWriter(WritableByteChannel channel) {
+		this.channel = channel;
+		this.buffer.put(MAGIC);
+	}
+	
+	@Override
+	public void write(AssemblyLine assemblyLine) throws IOException {
+		for (Step step : assemblyLine.getSteps()) {
+			if(!dictionary.containsKey(step.getTitle())) {
+				this.writeTitle(step.getTitle());
+			}
+		}
+		
+		this.ensure(9);
+		buffer.put(LINE);
+		buffer.putInt(assemblyLine.getNumber());
+		buffer.putInt(assemblyLine.getSteps().size());
+		
+		for (Step step : assemblyLine.getSteps()) {
+			this.ensure(9);
+			buffer.put(STEP);
+			buffer.putInt(dictionary.get(step.getTitle()));
+			buffer.putShort((short) (step.getTime().getHour() * MINUTES_BY_HOUR + step.getTime().getMinute()));
+			buffer.putShort((short) (step.getTimeInMinutes() == null ? -1 : step.getTimeInMinutes()));
+		}
+	}
+	
+	private void writeTitle(String title) throws IOException {
+		byte[] bytes = title.getBytes(StandardCharsets.UTF_8);
+		int position = 0;
+		
+		dictionary.put(title, dictionary.size());
+		
+		this.ensure(5);
+		buffer.put(TITLE);
+		buffer.putInt(bytes.length);
+		
+		while(position < bytes.length) {
+			this.ensure(1);
+			
+			int length = Math.min(buffer.remaining(), bytes.length - position);
+			
+			buffer.put(bytes, position, length);
+			position += length;
+		}
+	}
+	
+	/**
+	 * Writes the buffer to the channel when it has less than the bytes needed.
+	 * @param bytes
+	 * @throws IOException
+	 */
+	private void ensure(int bytes) throws IOException {
+		if(buffer.remaining() < bytes) {
+			this.writeBuffer();
+		}
+	}
+	
+	private void writeBuffer() throws IOException {
+		buffer.flip();
+		
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		
+		buffer.clear();
+	}
+	
+	@Override
+	public void finish() throws IOException {
+		this.ensure(1);
+		buffer.put(END);
+		this.writeBuffer();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
@@ -0,0 +1,172 @@
+package br.com.neogrid.challenge.domain.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.time.LocalTime;
+
+/**
+ * Base of the text formats, encoding the characters straight to the channel through reusable buffers.
+ * @author Divino Martins
+ *
+ */
+public abstract class CharPlanWriter implements PlanWriter {
+	
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	private final WritableByteChannel channel;
+	private final CharsetEncoder encoder;
+	private final CharBuffer chars;
+	private final ByteBuffer bytes;
+	private final char[] digits = new char[11];
+	
+	protected CharPlanWriter(WritableByteChannel channel, Charset charset) {
+		this(channel, charset, BUFFER_SIZE);
+	}
+	
+	protected CharPlanWriter(WritableByteChannel channel, Charset charset, int bufferSize) {
+		this.channel = channel;
+		//Like String.getBytes, the characters the charset can not encode are replaced.
+		this.encoder = charset.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.chars = CharBuffer.allocate(bufferSize);
+		this.bytes = ByteBuffer.allocate(Math.max(bufferSize, 16) * 4);
+	}
+	
+	/**
+	 * Writes the time as HH:mm, the seconds only appear when the time has them.
+	 * @param time
+	 * @throws IOException
+	 */
+	protected void appendTime(LocalTime time) throws IOException {
+		if(time.getSecond() != 0
+				|| time.getNano() != 0) {
+			this.append(time.toString());
+			return;
+		}
+		
+		this.append((char) ('0' + time.getHour() / 10));
+		this.append((char) ('0' + time.getHour() % 10));
+		this.append(':');
+		this.append((char) ('0' + time.getMinute() / 10));
+		this.append((char) ('0' + time.getMinute() % 10));
+	}
+	
+	protected void append(int value) throws IOException {
+		long remaining = Math.abs((long) value);
+		int position = digits.length;
+		
+		do {
+			digits[--position] = (char) ('0' + remaining % 10);
+			remaining /= 10;
+		} while(remaining > 0);
+		
+		if(value < 0) {
+			this.append('-');
+		}
+		
+		for (; position < digits.length; position++) {
+			this.append(digits[position]);
+		}
+	}
+	
+	protected void append(String text) throws IOException {
+		int position = 0;
+		
+		while(position < text.length()) {
+			if(!chars.hasRemaining()) {
+				this.encode(false);
+			}
+			
+			int end = Math.min(text.length(), position + chars.remaining());
+			
+			chars.put(text, position, end);
+			position = end;
+		}
+	}
+	
+	protected void append(char character) throws IOException {
+		if(!chars.hasRemaining()) {
+			this.encode(false);
+		}
+		
+		chars.put(character);
+	}
+	
+	/**
+	 * Encodes the pending characters, writing the bytes to the channel whenever the buffer is full.
+	 * @param endOfInput
+	 * @throws IOException
+	 */
+	private void encode(boolean endOfInput) throws IOException {
+		chars.flip();
+		
+		CoderResult result;
+		
+		while((result = encoder.encode(chars, bytes, endOfInput)).isOverflow()) {
+			this.writeBytes();
+		}
+		
+		if(result.isError()) {
+			result.throwException();
+		}
+		
+		chars.compact();
+	}
+	
+	private void writeBytes() throws IOException {
+		bytes.flip();
+		
+		while(bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		
+		bytes.clear();
+	}
+	
+	/**
+	 * Writes what the format needs after the last assembly line.
+	 * @throws IOException
+	 */
+	protected void writeEnd() throws IOException {
+	}
+	
+	/**
+	 * Writes everything still in the buffers to the channel.
+	 * @throws IOException
+	 */
+	public void flush() throws IOException {
+		this.encode(false);
+		this.writeBytes();
+	}
+	
+	/**
+	 * Ends the format and writes the buffers to the channel.
+	 */
+	@Override
+	public void finish() throws IOException {
+		this.writeEnd();
+		this.encode(true);
+		
+		while(encoder.flush(bytes).isOverflow()) {
+			this.writeBytes();
+		}
+		
+		this.writeBytes();
+	}
+	
+	/**
+	 * Closes the channel, what was not finished is dropped.
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
@@ -0,0 +1,86 @@
+package br.com.neogrid.challenge.domain.output;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.Step;
+
+/**
+ * Writes one row for each step with the columns line, time, minutes and title, after the header.
+ * The minutes are empty when the step has no duration, like the labor gymnastics, and the titles
+ * with commas, quotes or line breaks are quoted.
+ * @author Divino Martins
+ *
+ */
+public class CsvPlanWriter extends CharPlanWriter {
+	
+	private boolean header = true;
+	
+	public CsvPlanWriter(WritableByteChannel channel) {
+		super(channel, StandardCharsets.UTF_8);
+	}
+	
+	@Override
+	public void write(AssemblyLine assemblyLine) throws IOException {
+		this.writeHeader();
+		
+		for (Step step : assemblyLine.getSteps()) {
+			this.append(assemblyLine.getNumber());
+			this.append(',');
+			this.appendTime(step.getTime());
+			this.append(',');
+			
+			if(step.getTimeInMinutes() != null) {
+				this.append(step.getTimeInMinutes());
+			}
+			
+			this.append(',');
+			this.appendField(step.getTitle());
+			this.append('\n');
+		}
+	}
+	
+	@Override
+	protected void writeEnd() throws IOException {
+		this.writeHeader();
+	}
+	
+	private void writeHeader() throws IOException {
+		if(header) {
+			this.append("line,time,minutes,title\n");
+			header = false;
+		}
+	}
+	
+	private void appendField(String text) throws IOException {
+		boolean quoted = false;
+		
+		for (int index = 0; index < text.length() && !quoted; index++) {
+			char character = text.charAt(index);
+			
+			quoted = character == ',' || character == '"' || character == '\n' || character == '\r';
+		}
+		
+		if(!quoted) {
+			this.append(text);
+			return;
+		}
+		
+		this.append('"');
+		
+		for (int index = 0; index < text.length(); index++) {
+			char character = text.charAt(index);
+			
+			if(character == '"') {
+				this.append('"');
+			}
+			
+			this.append(character);
+		}
+		
+		this.append('"');
+	}
+
+}
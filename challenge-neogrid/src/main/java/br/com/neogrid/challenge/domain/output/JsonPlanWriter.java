@@ -0,0 +1,86 @@
+package br.com.neogrid.challenge.domain.output;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.Step;
+
+/**
+ * Writes an object with the array of assembly lines, each one with its number and the array of its steps:
+ * {"assemblyLines":[{"number":1,"steps":[{"time":"09:00","minutes":60,"title":"..."}]}]}.
+ * The minutes are null when the step has no duration, like the labor gymnastics.
+ * @author Divino Martins
+ *
+ */
+public class JsonPlanWriter extends CharPlanWriter {
+	
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	
+	private boolean first = true;
+	
+	public JsonPlanWriter(WritableByteChannel channel) {
+		super(channel, StandardCharsets.UTF_8);
+	}
+	
+	@Override
+	public void write(AssemblyLine assemblyLine) throws IOException {
+		this.append(first ? "{\"assemblyLines\":[" : ",");
+		this.append("{\"number\":");
+		this.append(assemblyLine.getNumber());
+		this.append(",\"steps\":[");
+		
+		for (int index = 0; index < assemblyLine.getSteps().size(); index++) {
+			Step step = assemblyLine.getSteps().get(index);
+			
+			if(index > 0) {
+				this.append(',');
+			}
+			
+			this.append("{\"time\":\"");
+			this.appendTime(step.getTime());
+			this.append("\",\"minutes\":");
+			
+			if(step.getTimeInMinutes() != null) {
+				this.append(step.getTimeInMinutes());
+			} else {
+				this.append("null");
+			}
+			
+			this.append(",\"title\":");
+			this.appendString(step.getTitle());
+			this.append('}');
+		}
+		
+		this.append("]}");
+		first = false;
+	}
+	
+	@Override
+	protected void writeEnd() throws IOException {
+		this.append(first ? "{\"assemblyLines\":[]}" : "]}");
+	}
+	
+	private void appendString(String text) throws IOException {
+		this.append('"');
+		
+		for (int index = 0; index < text.length(); index++) {
+			char character = text.charAt(index);
+			
+			if(character == '"' || character == '\\') {
+				this.append('\\');
+				this.append(character);
+			} else if(character < ' ') {
+				this.append("\\u00");
+				this.append(HEX[character >> 4]);
+				this.append(HEX[character & 0xF]);
+			} else {
+				this.append(character);
+			}
+		}
+		
+		this.append('"');
+	}
+
+}
@@ -0,0 +1,58 @@
+package br.com.neogrid.challenge.domain.output;
+
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+import lombok.Getter;
+
+/**
+ * Formats of the output file with the assembly lines.
+ * @author Divino Martins
+ *
+ */
+@Getter
+public enum OutputFormat {
+	
+	/**
+	 * The assembly lines as text, with the start time and the title of each step, in the default charset.
+	 */
+	TEXT(".txt"),
+	
+	/**
+	 * One row for each step with the number of the assembly line, the start time, the minutes and the title, in UTF-8.
+	 */
+	CSV(".csv"),
+	
+	/**
+	 * An object with the array of assembly lines, each one with the array of its steps, in UTF-8.
+	 */
+	JSON(".json"),
+	
+	/**
+	 * Length-prefixed records with a dictionary of titles and the start times as minutes of the day.
+	 */
+	BINARY(".bin");
+	
+	private final String extension;
+	
+	private OutputFormat(String extension) {
+		this.extension = extension;
+	}
+	
+	/**
+	 * @param channel
+	 * @return the writer of the format on the channel.
+	 */
+	public PlanWriter createWriter(WritableByteChannel channel) {
+		switch (this) {
+		case CSV:
+			return new CsvPlanWriter(channel);
+		case JSON:
+			return new JsonPlanWriter(channel);
+		case BINARY:
+			return new BinaryPlanWriter(channel);
+		default:
+			return new TextPlanWriter(channel, Charset.defaultCharset());
+		}
+	}
+}
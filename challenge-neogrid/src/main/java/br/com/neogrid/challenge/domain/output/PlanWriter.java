@@ -0,0 +1,26 @@
+package br.com.neogrid.challenge.domain.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+
+/**
+ * Encoder of the assembly lines in one of the {@link OutputFormat}, writing them one at a time as they are produced.
+ * The format is only completed by {@link #finish()}, closing the writer just closes the channel,
+ * so a plan that failed halfway is never written as a complete file.
+ * @author Divino Martins
+ *
+ */
+public interface PlanWriter extends Closeable {
+	
+	void write(AssemblyLine assemblyLine) throws IOException;
+	
+	/**
+	 * Writes what the format needs after the last assembly line and everything still buffered,
+	 * only once all the assembly lines were written.
+	 * @throws IOException
+	 */
+	void finish() throws IOException;
+
+}
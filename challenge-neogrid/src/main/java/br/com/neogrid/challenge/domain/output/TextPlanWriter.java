@@ -0,0 +1,45 @@
+package br.com.neogrid.challenge.domain.output;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.Step;
+
+/**
+ * Writes each assembly line as its description, one line for each step with the start time and the title,
+ * and a blank line.
+ * @author Divino Martins
+ *
+ */
+public class TextPlanWriter extends CharPlanWriter {
+	
+	public TextPlanWriter(WritableByteChannel channel, Charset charset) {
+		super(channel, charset);
+	}
+	
+	TextPlanWriter(WritableByteChannel channel, Charset charset, int bufferSize) {
+		super(channel, charset, bufferSize);
+	}
+	
+	@Override
+	public void write(AssemblyLine assemblyLine) throws IOException {
+		this.writeLine(assemblyLine.getDescription());
+		
+		for (Step step : assemblyLine.getSteps()) {
+			this.appendTime(step.getTime());
+			this.append(' ');
+			this.append(step.getTitle());
+			this.append('\n');
+		}
+		
+		this.append('\n');
+	}
+	
+	public void writeLine(String text) throws IOException {
+		this.append(text);
+		this.append('\n');
+	}
+
+}
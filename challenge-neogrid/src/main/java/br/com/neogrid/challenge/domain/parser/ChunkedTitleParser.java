@@ -0,0 +1,222 @@
+package br.com.neogrid.challenge.domain.parser;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import br.com.neogrid.challenge.domain.exception.ProcessException;
+import br.com.neogrid.challenge.infrastructure.jfr.ParseChunkEvent;
+import br.com.neogrid.challenge.infrastructure.storage.MappedLineReader;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Parses the titles in chunks, each one on a worker of the pool.
+ * The chunks are parsed independently and merged in order, the malformed titles are reported
+ * with their line in the whole input.
+ * @author Divino Martins
+ *
+ */
+public final class ChunkedTitleParser {
+	
+	/**
+	 * Minimum number of titles of a chunk of a list.
+	 */
+	private static final int MIN_TITLES_BY_CHUNK = 1 << 14;
+	
+	/**
+	 * Minimum number of bytes of a chunk of a file.
+	 */
+	private static final long MIN_BYTES_BY_CHUNK = 1 << 20;
+	
+	private static final int CHUNKS_BY_WORKER = 4;
+	
+	private ChunkedTitleParser() {
+	}
+	
+	/**
+	 * Reads the non-blank lines of the file mapped in memory and parses their durations.
+	 * @param path
+	 * @param pool
+	 * @return the titles and their durations in the order of the file.
+	 */
+	public static ParsedTitles parse(Path path, ForkJoinPool pool) {
+		long size = path.toFile().length();
+		
+		return parse(path, pool, (int) Math.max(1, Math.min(pool.getParallelism() * CHUNKS_BY_WORKER, size / MIN_BYTES_BY_CHUNK)));
+	}
+	
+	static ParsedTitles parse(Path path, ForkJoinPool pool, int chunks) {
+		long[] bounds = MappedLineReader.split(path, chunks);
+		List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+		
+		for (int chunk = 0; chunk + 1 < bounds.length; chunk++) {
+			long begin = bounds[chunk];
+			long end = bounds[chunk + 1];
+			
+			tasks.add(pool.submit(() -> parseChunk(path, begin, end)));
+		}
+		
+		List<Chunk> parsed = new ArrayList<>();
+		int count = 0;
+		
+		for (ForkJoinTask<Chunk> task : tasks) {
+			Chunk chunk = task.join();
+			
+			parsed.add(chunk);
+			count += chunk.titles.size();
+		}
+		
+		return merge(parsed, count);
+	}
+	
+	/**
+	 * Parses the durations of the titles, in chunks when the list is long.
+	 * @param titles
+	 * @param pool
+	 * @return the duration in minutes of each title.
+	 */
+	public static int[] parseDurations(List<String> titles, ForkJoinPool pool) {
+		return parseDurations(titles, pool, Math.max(1, Math.min(pool.getParallelism() * CHUNKS_BY_WORKER, titles.size() / MIN_TITLES_BY_CHUNK)));
+	}
+	
+	static int[] parseDurations(List<String> titles, ForkJoinPool pool, int chunks) {
+		int[] durations = new int[titles.size()];
+		
+		if(chunks == 1) {
+			parseDurations(titles, durations, 0, titles.size());
+			
+			return durations;
+		}
+		
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			int begin = (int) ((long) titles.size() * chunk / chunks);
+			int end = (int) ((long) titles.size() * (chunk + 1) / chunks);
+			
+			tasks.add(pool.submit(() -> parseDurations(titles, durations, begin, end)));
+		}
+		
+		//The chunks are joined in order, so the first malformed title is the one reported.
+		for (ForkJoinTask<?> task : tasks) {
+			task.join();
+		}
+		
+		return durations;
+	}
+	
+	private static void parseDurations(List<String> titles, int[] durations, int begin, int end) {
+		ParseChunkEvent event = new ParseChunkEvent();
+		
+		event.begin();
+		
+		for (int index = begin; index < end; index++) {
+			String title = titles.get(index);
+			
+			if(title == null) {
+				throw new ProcessException("The title must be informed.");
+			}
+			
+			durations[index] = TitleParser.parseDuration(title, index + 1);
+		}
+		
+		event.end();
+		
+		if(event.shouldCommit()) {
+			event.from = begin;
+			event.to = end;
+			event.titles = end - begin;
+			event.commit();
+		}
+	}
+	
+	private static Chunk parseChunk(Path path, long begin, long end) {
+		Chunk chunk = new Chunk();
+		ParseChunkEvent event = new ParseChunkEvent();
+		
+		event.begin();
+		
+		MappedLineReader.forEachLine(path, begin, end, (title, lineNumber) -> {
+			chunk.lines = lineNumber;
+			
+			if(title.isBlank()) {
+				return;
+			}
+			
+			int duration = TitleParser.parseDuration(title);
+			
+			if(duration < 0
+					&& chunk.malformedLine == 0) {
+				chunk.malformedLine = lineNumber;
+				chunk.malformedTitle = title;
+			}
+			
+			chunk.add(title, duration);
+		});
+		
+		event.end();
+		
+		if(event.shouldCommit()) {
+			event.from = begin;
+			event.to = end;
+			event.bytes = end - begin;
+			event.titles = chunk.titles.size();
+			event.commit();
+		}
+		
+		return chunk;
+	}
+	
+	private static ParsedTitles merge(List<Chunk> chunks, int count) {
+		List<String> titles = new ArrayList<>(count);
+		int[] durations = new int[count];
+		int lines = 0;
+		
+		for (Chunk chunk : chunks) {
+			if(chunk.malformedLine != 0) {
+				//Throws the error of the title with the line in the whole file.
+				TitleParser.parseDuration(chunk.malformedTitle, lines + chunk.malformedLine);
+			}
+			
+			System.arraycopy(chunk.durations, 0, durations, titles.size(), chunk.titles.size());
+			titles.addAll(chunk.titles);
+			lines += chunk.lines;
+		}
+		
+		return new ParsedTitles(titles, durations);
+	}
+	
+	/**
+	 * Titles of the input with their durations in minutes.
+	 */
+	@Getter
+	@AllArgsConstructor
+	public static class ParsedTitles {
+		
+		private final List<String> titles;
+		private final int[] durations;
+	}
+	
+	private static class Chunk {
+		
+		private final List<String> titles = new ArrayList<>();
+		private int[] durations = new int[64];
+		private int lines;
+		private int malformedLine;
+		private String malformedTitle;
+		
+		private void add(String title, int duration) {
+			if(titles.size() == durations.length) {
+				durations = Arrays.copyOf(durations, durations.length * 2);
+			}
+			
+			durations[titles.size()] = duration;
+			titles.add(title);
+		}
+	}
+
+}
@@ -0,0 +1,110 @@
+package br.com.neogrid.challenge.domain.parser;
+
+import br.com.neogrid.challenge.domain.exception.ProcessException;
+
+/**
+ * Reads the duration in minutes of the step from its title in a single pass, without allocating.
+ * The digits of the title are the minutes, a title without digits and with the word maintenance lasts 5 minutes.
+ * @author Divino Martins
+ *
+ */
+public final class TitleParser {
+	
+	public static final int MAINTENANCE_MINUTES = 5;
+	
+	/**
+	 * Returned when the title has neither digits nor the word maintenance.
+	 */
+	public static final int MISSING = -1;
+	
+	/**
+	 * Returned when the digits do not fit in an int.
+	 */
+	public static final int OVERFLOW = -2;
+	
+	private static final String MAINTENANCE = "maintenance";
+	
+	private TitleParser() {
+	}
+	
+	/**
+	 * @param title
+	 * @return the duration in minutes, {@link #MISSING} or {@link #OVERFLOW}.
+	 */
+	public static int parseDuration(CharSequence title) {
+		return parseDuration(title, 0, title.length());
+	}
+	
+	/**
+	 * Reads the duration of the title between the positions informed.
+	 * @param title
+	 * @param begin the first position of the title.
+	 * @param end the position after the last one of the title.
+	 * @return the duration in minutes, {@link #MISSING} or {@link #OVERFLOW}.
+	 */
+	public static int parseDuration(CharSequence title, int begin, int end) {
+		int minutes = 0;
+		boolean hasDigits = false;
+		boolean overflow = false;
+		//Number of characters of the word maintenance matched so far.
+		int matched = 0;
+		
+		for (int index = begin; index < end; index++) {
+			char character = title.charAt(index);
+			
+			if(character >= '0' && character <= '9') {
+				int digit = character - '0';
+				
+				hasDigits = true;
+				
+				if(minutes > (Integer.MAX_VALUE - digit) / 10) {
+					overflow = true;
+				} else {
+					minutes = minutes * 10 + digit;
+				}
+			}
+			
+			if(matched < MAINTENANCE.length()) {
+				char lower = Character.toLowerCase(character);
+				
+				if(lower == MAINTENANCE.charAt(matched)) {
+					matched++;
+				} else {
+					//The first letter does not repeat in the word, so the match can only restart on it.
+					matched = lower == MAINTENANCE.charAt(0) ? 1 : 0;
+				}
+			}
+		}
+		
+		if(overflow) {
+			return OVERFLOW;
+		}
+		
+		if(hasDigits) {
+			return minutes;
+		}
+		
+		return matched == MAINTENANCE.length() ? MAINTENANCE_MINUTES : MISSING;
+	}
+	
+	/**
+	 * @param title
+	 * @param lineNumber the line of the title, used in the error message.
+	 * @return the duration in minutes.
+	 * @throws ProcessException when the duration is missing or too long.
+	 */
+	public static int parseDuration(CharSequence title, int lineNumber) {
+		int minutes = parseDuration(title);
+		
+		if(minutes == MISSING) {
+			throw new ProcessException(String.format("The time in minutes for the step is missing on line %d: %s", lineNumber, title));
+		}
+		
+		if(minutes == OVERFLOW) {
+			throw new ProcessException(String.format("The time in minutes for the step is too long on line %d: %s", lineNumber, title));
+		}
+		
+		return minutes;
+	}
+
+}
@@ -0,0 +1,154 @@
+package br.com.neogrid.challenge.domain.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.neogrid.challenge.core.batch.BatchProperties;
+import br.com.neogrid.challenge.domain.exception.ProcessException;
+import br.com.neogrid.challenge.domain.model.BatchResult;
+import br.com.neogrid.challenge.domain.model.BatchResult.BatchFile;
+import br.com.neogrid.challenge.domain.model.Response;
+import br.com.neogrid.challenge.domain.service.FileStorageService.OutputChannel;
+import br.com.neogrid.challenge.domain.service.FileStorageService.StreamStorage;
+import br.com.neogrid.challenge.infrastructure.storage.StorageException;
+
+/**
+ * Plans all files of the input directory on the bounded executor of the batches, writing one output file for each
+ * input file and a manifest with the result and the time of each one.
+ * @author Divino Martins
+ *
+ */
+@Service
+public class BatchPlanService {
+	
+	@Autowired
+	private FileStorageService fileStorageService;
+	
+	@Autowired
+	private ProcessFileService processFileService;
+	
+	@Autowired
+	private BatchProperties batchProperties;
+	
+	@Autowired
+	private ThreadPoolExecutor batchExecutor;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	/**
+	 * Plans the input files whose names match the pattern, the failure of a file does not stop the others.
+	 * @param glob pattern of the names of the files, the configured one when null.
+	 * @return the summary of the batch, also written in the manifest.
+	 */
+	public BatchResult process(String glob) {
+		String pattern = glob != null ? glob : batchProperties.getGlob();
+		Instant started = Instant.now();
+		long begin = System.nanoTime();
+		List<String> names = fileStorageService.list(pattern);
+		List<CompletableFuture<BatchFile>> futures = new ArrayList<>(names.size());
+		
+		for (String name : names) {
+			futures.add(CompletableFuture.supplyAsync(() -> this.processFile(name), batchExecutor));
+		}
+		
+		List<BatchFile> files = new ArrayList<>(names.size());
+		int failed = 0;
+		
+		for (CompletableFuture<BatchFile> future : futures) {
+			BatchFile file = future.join();
+			
+			if(file.getStatus() == BatchResult.Status.FAILED) {
+				failed++;
+			}
+			
+			files.add(file);
+		}
+		
+		BatchResult result = BatchResult.builder()
+				.glob(pattern)
+				.started(started)
+				.millis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin))
+				.done(files.size() - failed)
+				.failed(failed)
+				.files(files)
+				.build();
+		
+		this.writeManifest(result);
+		
+		return result;
+	}
+	
+	/**
+	 * Plans one input file, the failure is kept in the result instead of thrown.
+	 * Each input gets an output file of its own, even when its plan is taken from the cache, and its own error file when it fails.
+	 * @param name the name of the file in the input directory.
+	 * @return the result of the file with the time it took.
+	 */
+	public BatchFile processFile(String name) {
+		long begin = System.nanoTime();
+		BatchFile.BatchFileBuilder file = BatchFile.builder().input(name);
+		
+		try {
+			Response response = processFileService.processInput(fileStorageService.read(name), PlanListener.NONE, false);
+			
+			file.status(BatchResult.Status.DONE)
+				.output(response.getOutput().getName())
+				.assemblyLines(response.getAssemblyLines().size())
+				.optimal(response.getOptimal());
+		} catch (ProcessException ex) {
+			file.status(BatchResult.Status.FAILED)
+				.message(ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+			
+			if(ex.getResponse() != null
+					&& ex.getResponse().getOutput() != null) {
+				file.output(ex.getResponse().getOutput().getName());
+			}
+		} catch (StorageException ex) {
+			file.status(BatchResult.Status.FAILED)
+				.message(ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+		}
+		
+		return file.millis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin)).build();
+	}
+	
+	/**
+	 * Writes the result to the manifest file, setting its name in the result before, so the manifest names itself.
+	 */
+	private void writeManifest(BatchResult result) {
+		StreamStorage manifest = StreamStorage.builder()
+				.name(fileStorageService.generateManifestFileName())
+				.build();
+		
+		result.setManifest(manifest.getName());
+		
+		try (OutputChannel channel = fileStorageService.create(manifest)) {
+			ByteBuffer bytes = ByteBuffer.wrap(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(result));
+			
+			while(bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+			
+			channel.commit();
+		} catch (IOException ex) {
+			throw new StorageException("Could not save file.", ex);
+		}
+		
+		//The batch only returns when its manifest is on the disk, even if the storage writes behind.
+		if(manifest.getWritten() != null) {
+			manifest.getWritten().join();
+		}
+	}
+
+}
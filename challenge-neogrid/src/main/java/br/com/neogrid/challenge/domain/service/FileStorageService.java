@@ -1,8 +1,12 @@
 package br.com.neogrid.challenge.domain.service;
 
 import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import br.com.neogrid.challenge.domain.output.OutputFormat;
 import lombok.Builder;
 import lombok.Data;
 
@@ -15,8 +19,33 @@ public interface FileStorageService {
 	
 	StreamStorage read(String name);
 	
+	/**
+	 * @param glob pattern of the names of the input files, all files when null.
+	 * @return the names of the input files, in alphabetical order.
+	 */
+	List<String> list(String glob);
+	
 	void save(StreamStorage file);
 	
+	/**
+	 * Saves the file, the future is completed when the file is written.
+	 * @param file
+	 * @return the future of the write.
+	 */
+	default CompletableFuture<StreamStorage> saveAsync(StreamStorage file) {
+		this.save(file);
+		
+		return CompletableFuture.completedFuture(file);
+	}
+	
+	/**
+	 * Creates the file to be written through the channel, setting its path.
+	 * The stream of the file is set to read it back only when it is read.
+	 * @param file
+	 * @return the channel to write the file, it must be closed by the caller.
+	 */
+	OutputChannel create(StreamStorage file);
+	
 	default StreamStorage read() {
 		return this.read(getDefaultInputFileName());
 	}
@@ -26,13 +55,47 @@ public interface FileStorageService {
 	}
 	
 	default String generateOutputFileName() {
-		return "output_" + UUID.randomUUID() +  ".txt";
+		return this.generateOutputFileName(OutputFormat.TEXT.getExtension());
+	}
+	
+	default String generateOutputFileName(String extension) {
+		return "output_" + UUID.randomUUID() +  extension;
+	}
+	
+	default String generateManifestFileName() {
+		return "manifest_" + UUID.randomUUID() + ".json";
 	}
 	
 	default String generateOutputErrorFileName() {
 		return "output_error.txt";
 	}
+	
+	/**
+	 * @param inputName the name of the input file that failed, or null when there is no input file.
+	 * @return the name of the error file of the input, so the failures of different inputs are not written to the same file.
+	 */
+	default String generateOutputErrorFileName(String inputName) {
+		if(inputName == null) {
+			return this.generateOutputErrorFileName();
+		}
+		
+		int extension = inputName.lastIndexOf('.');
+		
+		return "output_error_" + (extension > 0 ? inputName.substring(0, extension) : inputName) + ".txt";
+	}
+	
+	/**
+	 * Channel of a file being created. The file is only kept when the channel is committed before it is closed,
+	 * a channel closed without it, like when the writing failed, deletes the file.
+	 */
+	interface OutputChannel extends WritableByteChannel {
 		
+		/**
+		 * Marks the file as complete, to be kept when the channel is closed.
+		 */
+		void commit();
+	}
+	
 	@Builder
 	@Data
 	class StreamStorage {
@@ -40,5 +103,15 @@ public interface FileStorageService {
 		private String path;
 		private String name;
 		private InputStream stream;
+		
+		/**
+		 * Format of the output file. On the input, the format wanted for the output, the configured one when null.
+		 */
+		private OutputFormat format;
+		
+		/**
+		 * Completed when the output file is written, null when the storage writes while the file is saved.
+		 */
+		private CompletableFuture<StreamStorage> written;
 	}
 }
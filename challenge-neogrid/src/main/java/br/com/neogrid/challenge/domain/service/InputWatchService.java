@@ -0,0 +1,202 @@
+package br.com.neogrid.challenge.domain.service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import br.com.neogrid.challenge.core.storage.StorageProperties;
+import br.com.neogrid.challenge.core.threads.DaemonThreadFactory;
+import br.com.neogrid.challenge.core.watch.WatchProperties;
+import br.com.neogrid.challenge.domain.model.BatchResult.BatchFile;
+import br.com.neogrid.challenge.infrastructure.storage.StorageException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Watches the input directory and plans the files created or changed on it.
+ * A file is only planned after the debounce without new events, so the files still being written are not read.
+ * The files ready wait in a bounded queue, when it is full they are kept pending and submitted again later.
+ * @author Divino Martins
+ *
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "challenge.watch", name = "enabled", havingValue = "true")
+public class InputWatchService {
+	
+	@Autowired
+	private BatchPlanService batchPlanService;
+	
+	@Autowired
+	private FileStorageService fileStorageService;
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	@Autowired
+	private WatchProperties watchProperties;
+	
+	private WatchService watchService;
+	
+	private ThreadPoolExecutor executor;
+	
+	private Thread watcher;
+	
+	/**
+	 * Names of the files waiting for the debounce, with the time in nanoseconds at which they are ready.
+	 * Only used by the watcher thread.
+	 */
+	private final Map<String, Long> pending = new LinkedHashMap<>();
+	
+	/**
+	 * Names of the files submitted and not finished yet.
+	 */
+	private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+	
+	/**
+	 * Last result of each file planned.
+	 */
+	private final Map<String, BatchFile> results = new ConcurrentHashMap<>();
+	
+	@PostConstruct
+	public void start() {
+		Path directory = storageProperties.getLocal().getDirectoryInput();
+		
+		try {
+			watchService = FileSystems.getDefault().newWatchService();
+			directory.register(
+					watchService, 
+					StandardWatchEventKinds.ENTRY_CREATE, 
+					StandardWatchEventKinds.ENTRY_MODIFY
+				);
+		} catch (IOException ex) {
+			throw new StorageException("The input directory could not be watched.", ex);
+		}
+		
+		executor = new ThreadPoolExecutor(
+				watchProperties.getThreads(), 
+				watchProperties.getThreads(), 
+				0, 
+				TimeUnit.MILLISECONDS, 
+				new ArrayBlockingQueue<>(watchProperties.getQueueCapacity()),
+				new DaemonThreadFactory("input-watch-plan-")
+			);
+		
+		watcher = new Thread(this::watch, "input-watch");
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+	
+	@PreDestroy
+	public void shutdown() throws IOException, InterruptedException {
+		watchService.close();
+		watcher.join();
+		executor.shutdown();
+	}
+	
+	/**
+	 * @param name the name of the file in the input directory.
+	 * @return the result of the last planning of the file, or null if it was not planned yet.
+	 */
+	public BatchFile getResult(String name) {
+		return results.get(name);
+	}
+	
+	private void watch() {
+		PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + watchProperties.getGlob());
+		long debounce = watchProperties.getDebounce().toNanos();
+		long tick = Math.max(10, watchProperties.getDebounce().toMillis() / 2);
+		
+		while(true) {
+			try {
+				WatchKey key = watchService.poll(tick, TimeUnit.MILLISECONDS);
+				
+				if(key != null) {
+					try {
+						for (WatchEvent<?> event : key.pollEvents()) {
+							if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+								//The events were lost, all files are checked again.
+								fileStorageService.list(watchProperties.getGlob())
+									.forEach(name -> pending.put(name, System.nanoTime() + debounce));
+							} else {
+								Path name = (Path) event.context();
+								
+								if(matcher.matches(name)) {
+									pending.put(name.toString(), System.nanoTime() + debounce);
+								}
+							}
+						}
+					} finally {
+						key.reset();
+					}
+				}
+				
+				this.submitReady();
+			} catch (ClosedWatchServiceException ex) {
+				return;
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException ex) {
+				//A failure of one check does not stop the watching, the files are checked again on the next events.
+				log.error("The input directory could not be checked.", ex);
+			}
+		}
+	}
+	
+	/**
+	 * Submits the files whose debounce passed, except the ones still being planned.
+	 */
+	private void submitReady() {
+		long now = System.nanoTime();
+		Iterator<Map.Entry<String, Long>> entries = pending.entrySet().iterator();
+		
+		while(entries.hasNext()) {
+			Map.Entry<String, Long> entry = entries.next();
+			String name = entry.getKey();
+			
+			if(entry.getValue() - now > 0
+					|| !inFlight.add(name)) {
+				continue;
+			}
+			
+			try {
+				executor.execute(() -> {
+					try {
+						results.put(name, batchPlanService.processFile(name));
+					} finally {
+						inFlight.remove(name);
+					}
+				});
+				
+				entries.remove();
+			} catch (RejectedExecutionException ex) {
+				inFlight.remove(name);
+				
+				return;
+			}
+		}
+	}
+
+}
@@ -1,20 +1,26 @@
 package br.com.neogrid.challenge.domain.service;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import br.com.neogrid.challenge.core.metrics.PlanMetrics;
+import br.com.neogrid.challenge.core.storage.StorageProperties;
 import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.output.OutputFormat;
+import br.com.neogrid.challenge.domain.output.PlanWriter;
+import br.com.neogrid.challenge.domain.output.TextPlanWriter;
+import br.com.neogrid.challenge.domain.service.FileStorageService.OutputChannel;
 import br.com.neogrid.challenge.domain.service.FileStorageService.StreamStorage;
+import br.com.neogrid.challenge.infrastructure.jfr.OutputWriteEvent;
 import br.com.neogrid.challenge.infrastructure.storage.StorageException;
 
 /**
  * Class responsible for generating the output file with the assembly lines.
+ * The assembly lines are written straight to the file as they are encoded, without building the whole document.
  * @author Divino Martins
  *
  */
@@ -24,59 +30,105 @@ public class OutputStreamGenerateService {
 	@Autowired
 	private FileStorageService fileStorageService;
 
+	@Autowired
+	private StorageProperties storageProperties;
+
+	@Autowired
+	private PlanMetrics planMetrics;
+	
+	/**
+	 * Creates the output file in the configured format.
+	 * @param assemblyLines
+	 * @return the output file.
+	 */
 	public StreamStorage createOutputFile(List<AssemblyLine> assemblyLines) {
+		return this.createOutputFile(assemblyLines, storageProperties.getOutputFormat());
+	}
+	
+	/**
+	 * @param assemblyLines
+	 * @param format the format of the file, the configured one when null.
+	 * @return the output file.
+	 */
+	public StreamStorage createOutputFile(List<AssemblyLine> assemblyLines, OutputFormat format) {
+		return planMetrics.record(PlanMetrics.STAGE_OUTPUT, () -> this.writeOutputFile(assemblyLines, format));
+	}
+	
+	private StreamStorage writeOutputFile(List<AssemblyLine> assemblyLines, OutputFormat format) {
 		if(assemblyLines == null
 				|| assemblyLines.isEmpty()) {
 			throw new StorageException("The assembly line was not informed.");
 		}
 		
-		List<String> outputList = new ArrayList<>();
-		
-		for (AssemblyLine assemblyLine : assemblyLines) {
-			List<String> steps = assemblyLine.getSteps().stream()
-					.map(step -> String.format("%s %s", step.getTime().toString(), step.getTitle()))
-					.collect(Collectors.toList());
-			
-			outputList.add(assemblyLine.getDescription());
-			outputList.addAll(steps);
-			outputList.add("");
+		if(format == null) {
+			format = storageProperties.getOutputFormat();
 		}
-
-		InputStream inputStream = this.convertListToInputStream(outputList);
 		
 		StreamStorage output = StreamStorage.builder()
-				.name(fileStorageService.generateOutputFileName())
-				.stream(inputStream)
+				.name(fileStorageService.generateOutputFileName(format.getExtension()))
+				.format(format)
 				.build();
+		OutputWriteEvent event = new OutputWriteEvent();
+		
+		event.begin();
+		
+		//The file is only kept when every assembly line was written, otherwise closing the channel deletes it.
+		OutputChannel channel = fileStorageService.create(output);
+		
+		try (PlanWriter writer = format.createWriter(channel)) {
+			for (AssemblyLine assemblyLine : assemblyLines) {
+				writer.write(assemblyLine);
+			}
+			
+			writer.finish();
+			channel.commit();
+		} catch (IOException ex) {
+			throw new StorageException("Could not save file.", ex);
+		}
 		
-		fileStorageService.save(output);
+		event.end();
+		
+		if(event.shouldCommit()) {
+			event.name = output.getName();
+			event.format = format.name();
+			event.assemblyLines = assemblyLines.size();
+			event.steps = assemblyLines.stream()
+					.mapToInt(assemblyLine -> assemblyLine.getSteps().size())
+					.sum();
+			event.commit();
+		}
 		
 		return output;
 	}
 	
 	public StreamStorage createErrorOutputFile(String message) {
-		List<String> outputList = new ArrayList<>();
-		
-		outputList.add("Não foi possível gerar as linhas de montagem");
-		outputList.add("Erro:");
-		outputList.add(message);
-		
-		InputStream inputStream = this.convertListToInputStream(outputList);
-		
+		return this.createErrorOutputFile(message, null);
+	}
+	
+	/**
+	 * @param message
+	 * @param inputName the name of the input file that failed, the error file is named after it.
+	 * @return the error file.
+	 */
+	public StreamStorage createErrorOutputFile(String message, String inputName) {
 		StreamStorage output = StreamStorage.builder()
-				.name(fileStorageService.generateOutputErrorFileName())
-				.stream(inputStream)
+				.name(fileStorageService.generateOutputErrorFileName(inputName))
+				.format(OutputFormat.TEXT)
 				.build();
 		
-		fileStorageService.save(output);
+		OutputChannel channel = fileStorageService.create(output);
 		
-		return output;
-	}
-	
-	private InputStream convertListToInputStream(List<String> list) {
-		byte[] bytes = list.stream().collect(Collectors.joining("\n", "", "\n")).getBytes();
+		try (TextPlanWriter writer = new TextPlanWriter(channel, Charset.defaultCharset())) {
+			writer.writeLine("Não foi possível gerar as linhas de montagem");
+			writer.writeLine("Erro:");
+			writer.writeLine(String.valueOf(message));
+			writer.finish();
+			channel.commit();
+		} catch (IOException ex) {
+			throw new StorageException("Could not save file.", ex);
+		}
 		
-		return new ByteArrayInputStream(bytes);
+		return output;
 	}
 	
 }
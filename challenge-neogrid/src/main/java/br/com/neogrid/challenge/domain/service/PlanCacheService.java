@@ -0,0 +1,259 @@
+package br.com.neogrid.challenge.domain.service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import br.com.neogrid.challenge.core.cache.PlanCacheProperties;
+import br.com.neogrid.challenge.core.solver.SolverProperties;
+import br.com.neogrid.challenge.core.storage.PeriodProperties;
+import br.com.neogrid.challenge.core.storage.StorageProperties;
+import br.com.neogrid.challenge.domain.exception.ProcessException;
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.Response;
+import br.com.neogrid.challenge.domain.model.Step;
+import br.com.neogrid.challenge.domain.service.FileStorageService.StreamStorage;
+import br.com.neogrid.challenge.infrastructure.storage.LazyFileInputStream;
+import lombok.AllArgsConstructor;
+
+/**
+ * Keeps the responses already generated, so the same input is not solved again while the periods do not change.
+ * The key is the hash of the titles and of the configuration of the periods and of the solver, including its limits,
+ * so a plan cut short by a limit is not served for another limit.
+ * The assembly lines are stored and returned as unmodifiable copies, so the callers never share them.
+ * @author Divino Martins
+ *
+ */
+@Service
+public class PlanCacheService {
+	
+	@Autowired
+	private PlanCacheProperties planCacheProperties;
+	
+	@Autowired
+	private PeriodProperties periodProperties;
+	
+	@Autowired
+	private SolverProperties solverProperties;
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	
+	/**
+	 * Generates the key of the plan, the titles are trimmed before the hash.
+	 * @param titles
+	 * @return the SHA-256 in hexadecimal.
+	 */
+	public String generateKey(List<String> titles) {
+		MessageDigest digest = this.createDigest();
+		
+		for (String title : titles) {
+			digest.update(title.strip().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) '\n');
+		}
+		
+		String configuration = String.format(
+				"%s|%s|%s|%s|%s|%s|%s|%s", 
+				periodProperties.getMorning().getBegin(),
+				periodProperties.getMorning().getFinish(),
+				periodProperties.getAfternoon().getBegin(),
+				periodProperties.getAfternoon().getLaborGymMin(),
+				periodProperties.getAfternoon().getLaborGymMax(),
+				solverProperties.getMode(),
+				solverProperties.getBacktrackLimit(),
+				solverProperties.getMaxMillis()
+			);
+		
+		digest.update(configuration.getBytes(StandardCharsets.UTF_8));
+		
+		StringBuilder key = new StringBuilder();
+		
+		for (byte value : digest.digest()) {
+			key.append(String.format("%02x", value));
+		}
+		
+		return key.toString();
+	}
+	
+	/**
+	 * @param key
+	 * @return a copy of the response stored with the key, the stream of the output reopened from its path,
+	 * or null if there is none or it is expired.
+	 */
+	public synchronized Response get(String key) {
+		Entry entry = entries.get(key);
+		
+		if(entry == null) {
+			return null;
+		}
+		
+		if(this.isExpired(entry)) {
+			entries.remove(key);
+			
+			return null;
+		}
+		
+		Response stored = entry.response;
+		
+		return Response.builder()
+				.input(stored.getInput())
+				.output(this.withStream(stored.getOutput()))
+				.titles(stored.getTitles())
+				.assemblyLines(stored.getAssemblyLines() == null ? null : new CopiedAssemblyLines(stored.getAssemblyLines()))
+				.optimal(stored.getOptimal())
+				.lowerBound(stored.getLowerBound())
+				.key(stored.getKey())
+				.build();
+	}
+	
+	/**
+	 * Stores the response, only the names and paths of its files are kept.
+	 * @param key
+	 * @param response
+	 */
+	public synchronized void put(String key, Response response) {
+		if(planCacheProperties.getMaxEntries() <= 0) {
+			return;
+		}
+		
+		Response stored = Response.builder()
+				.input(this.withoutStream(response.getInput()))
+				.output(this.withoutStream(response.getOutput()))
+				.titles(response.getTitles() == null ? null : Collections.unmodifiableList(new ArrayList<>(response.getTitles())))
+				.assemblyLines(this.copy(response.getAssemblyLines()))
+				.optimal(response.getOptimal())
+				.lowerBound(response.getLowerBound())
+				.key(key)
+				.build();
+		
+		entries.put(key, new Entry(stored, System.nanoTime()));
+		entries.values().removeIf(this::isExpired);
+		
+		while(entries.size() > planCacheProperties.getMaxEntries()) {
+			entries.remove(entries.keySet().iterator().next());
+		}
+	}
+	
+	public synchronized void clear() {
+		entries.clear();
+	}
+	
+	private boolean isExpired(Entry entry) {
+		return System.nanoTime() - entry.created > planCacheProperties.getMaxAge().toNanos();
+	}
+	
+	private StreamStorage withoutStream(StreamStorage file) {
+		if(file == null) {
+			return null;
+		}
+		
+		return StreamStorage.builder()
+				.name(file.getName())
+				.path(file.getPath())
+				.format(file.getFormat())
+				.written(file.getWritten())
+				.build();
+	}
+	
+	/**
+	 * @return a copy of the file whose stream reads it from its path, once it is written.
+	 */
+	private StreamStorage withStream(StreamStorage file) {
+		if(file == null) {
+			return null;
+		}
+		
+		Path path = Path.of(file.getPath());
+		
+		return StreamStorage.builder()
+				.name(file.getName())
+				.path(file.getPath())
+				.format(file.getFormat())
+				.written(file.getWritten())
+				.stream(file.getWritten() == null
+						? new LazyFileInputStream(path)
+						: new LazyFileInputStream(path, file.getWritten(), storageProperties.getWriteBehind().getMaxWait()))
+				.build();
+	}
+	
+	private List<AssemblyLine> copy(List<AssemblyLine> assemblyLines) {
+		if(assemblyLines == null) {
+			return null;
+		}
+		
+		List<AssemblyLine> copies = new ArrayList<>(assemblyLines.size());
+		
+		for (AssemblyLine assemblyLine : assemblyLines) {
+			copies.add(copy(assemblyLine));
+		}
+		
+		return Collections.unmodifiableList(copies);
+	}
+	
+	private static AssemblyLine copy(AssemblyLine assemblyLine) {
+		AssemblyLine copy = new AssemblyLine();
+		
+		copy.setNumber(assemblyLine.getNumber());
+		
+		for (Step step : assemblyLine.getSteps()) {
+			copy.getSteps().add(Step.builder()
+					.title(step.getTitle())
+					.timeInMinutes(step.getTimeInMinutes())
+					.time(step.getTime())
+					.build());
+		}
+		
+		return copy;
+	}
+	
+	private MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new ProcessException("It was not possible to generate the key of the plan.", ex);
+		}
+	}
+	
+	/**
+	 * Unmodifiable view of the stored assembly lines that copies each one when it is read,
+	 * so a page of the plan only copies its own assembly lines.
+	 */
+	private static class CopiedAssemblyLines extends AbstractList<AssemblyLine> implements RandomAccess {
+		
+		private final List<AssemblyLine> stored;
+		
+		private CopiedAssemblyLines(List<AssemblyLine> stored) {
+			this.stored = stored;
+		}
+		
+		@Override
+		public AssemblyLine get(int index) {
+			return copy(stored.get(index));
+		}
+		
+		@Override
+		public int size() {
+			return stored.size();
+		}
+	}
+	
+	@AllArgsConstructor
+	private static class Entry {
+		
+		private final Response response;
+		private final long created;
+	}
+}
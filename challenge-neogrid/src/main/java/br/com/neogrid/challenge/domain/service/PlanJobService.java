@@ -0,0 +1,109 @@
+package br.com.neogrid.challenge.domain.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import br.com.neogrid.challenge.core.job.JobProperties;
+import br.com.neogrid.challenge.domain.model.PlanJob;
+import br.com.neogrid.challenge.domain.model.Response;
+import br.com.neogrid.challenge.domain.output.OutputFormat;
+
+/**
+ * Generates the plans in background on the bounded executor of the jobs, the results are kept in memory
+ * during the retention and then discarded.
+ * @author Divino Martins
+ *
+ */
+@Service
+public class PlanJobService {
+	
+	@Autowired
+	private ProcessFileService processFileService;
+	
+	@Autowired
+	private JobProperties jobProperties;
+	
+	@Autowired
+	private ThreadPoolExecutor planJobExecutor;
+	
+	private final Map<String, PlanJob> jobs = new ConcurrentHashMap<>();
+	
+	/**
+	 * Submits the titles to be planned and returns without waiting.
+	 * @param titles
+	 * @param format the format of the output file, or null to not write it.
+	 * @return the job queued.
+	 * @throws java.util.concurrent.RejectedExecutionException when the queue of the jobs is full.
+	 */
+	public PlanJob submit(List<String> titles, OutputFormat format) {
+		this.evictExpired();
+		
+		PlanJob job = PlanJob.builder()
+				.id(UUID.randomUUID().toString())
+				.status(PlanJob.Status.QUEUED)
+				.submitted(Instant.now())
+				.build();
+		
+		jobs.put(job.getId(), job);
+		
+		try {
+			planJobExecutor.execute(() -> this.run(job, titles, format));
+		} catch (RuntimeException ex) {
+			jobs.remove(job.getId());
+			throw ex;
+		}
+		
+		return job;
+	}
+	
+	/**
+	 * @param id
+	 * @return the current state of the job, or null if it does not exist or was discarded.
+	 */
+	public PlanJob get(String id) {
+		this.evictExpired();
+		
+		return jobs.get(id);
+	}
+	
+	private void run(PlanJob job, List<String> titles, OutputFormat format) {
+		jobs.put(job.getId(), job.toBuilder().status(PlanJob.Status.RUNNING).build());
+		
+		try {
+			Response response = processFileService.processTitles(titles, format);
+			
+			jobs.put(job.getId(), job.toBuilder()
+					.status(PlanJob.Status.DONE)
+					.assemblyLines(response.getAssemblyLines())
+					.optimal(response.getOptimal())
+					.outputFile(response.getOutput() != null ? response.getOutput().getName() : null)
+					.finished(Instant.now())
+					.build());
+		} catch (Throwable ex) {
+			jobs.put(job.getId(), job.toBuilder()
+					.status(PlanJob.Status.FAILED)
+					.message(ex.getMessage())
+					.finished(Instant.now())
+					.build());
+			
+			//The errors, like running out of memory, still reach the executor once the job is marked as failed.
+			if(ex instanceof Error) {
+				throw (Error) ex;
+			}
+		}
+	}
+	
+	private void evictExpired() {
+		Instant limit = Instant.now().minus(jobProperties.getRetention());
+		
+		jobs.values().removeIf(job -> job.getFinished() != null && job.getFinished().isBefore(limit));
+	}
+
+}
@@ -0,0 +1,21 @@
+package br.com.neogrid.challenge.domain.service;
+
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.PlanProgress;
+
+/**
+ * Receives the progress of the generation of a plan and each assembly line as soon as it is final.
+ * @author Divino Martins
+ *
+ */
+public interface PlanListener {
+	
+	PlanListener NONE = new PlanListener() {};
+	
+	default void onProgress(PlanProgress progress) {
+	}
+	
+	default void onAssemblyLine(AssemblyLine assemblyLine) {
+	}
+
+}
@@ -1,18 +1,37 @@
 package br.com.neogrid.challenge.domain.service;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
 
-import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import br.com.neogrid.challenge.core.metrics.PlanMetrics;
+import br.com.neogrid.challenge.core.storage.StorageProperties;
+import br.com.neogrid.challenge.core.threads.ThreadsProperties;
 import br.com.neogrid.challenge.domain.exception.ProcessException;
 import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.AssemblyPlan;
+import br.com.neogrid.challenge.domain.model.PlanProgress;
 import br.com.neogrid.challenge.domain.model.Response;
+import br.com.neogrid.challenge.domain.output.OutputFormat;
+import br.com.neogrid.challenge.domain.parser.ChunkedTitleParser;
+import br.com.neogrid.challenge.domain.parser.ChunkedTitleParser.ParsedTitles;
+import br.com.neogrid.challenge.domain.parser.TitleParser;
 import br.com.neogrid.challenge.domain.service.FileStorageService.StreamStorage;
+import br.com.neogrid.challenge.infrastructure.storage.MappedLineReader;
+import br.com.neogrid.challenge.infrastructure.storage.StorageException;
 
 /**
  * Class controls the processing of the input file and generation of the production lines.
@@ -30,22 +49,59 @@ public class ProcessFileService {
 	
 	@Autowired
 	private ProcessStepsService processStepsService;
-
+	
+	@Autowired
+	private PlanCacheService planCacheService;
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	@Autowired
+	private ThreadsProperties threadsProperties;
+	
+	@Autowired
+	private PlanMetrics planMetrics;
+	
+	@Autowired
+	private ForkJoinPool solverForkJoinPool;
+	
 	/**
 	 * Starts processing the standard file (input.txt)
 	 */
 	public Response start() {
 		StreamStorage input = fileStorageService.read();
-			
+		
 		return this.processInput(input);
 	}
 	
 	/**
 	 * Process the input file by providing a combination of process steps on the assembly lines.
+	 * When the same titles were already processed with the same periods, the stored assembly lines and output file are returned.
 	 * @param input
 	 * @throws Exception
 	 */
 	public Response processInput(StreamStorage input) {
+		return this.processInput(input, PlanListener.NONE);
+	}
+	
+	/**
+	 * Process the input file reporting the progress of the solving to the listener.
+	 * @param input
+	 * @param listener
+	 */
+	public Response processInput(StreamStorage input, PlanListener listener) {
+		return this.processInput(input, listener, true);
+	}
+	
+	/**
+	 * Process the input file reporting the progress of the solving to the listener.
+	 * @param input
+	 * @param listener
+	 * @param reuseOutput whether the output file of the same titles already processed is returned,
+	 * otherwise an output file of its own is written for the input even when the plan is taken from the cache,
+	 * and the error file is named after the input.
+	 */
+	public Response processInput(StreamStorage input, PlanListener listener, boolean reuseOutput) {
 		if(input == null
 				|| input.getStream() == null) {
 			throw new ProcessException("The input stream was not informed.");
@@ -54,18 +110,17 @@ public class ProcessFileService {
 		Response response = Response.builder().input(input).build();
 		
 		try {
-			List<String> titles = this.getTitlesFromInput(input.getStream());
-			response.setTitles(titles);
+			OutputFormat format = input.getFormat() != null ? input.getFormat() : storageProperties.getOutputFormat();
 			
-			List<AssemblyLine> assemblyLines = processStepsService.generateAssemblyLine(titles);
-			response.setAssemblyLines(assemblyLines);
+			ParsedTitles parsed = planMetrics.record(PlanMetrics.STAGE_PARSE, () -> this.getTitlesFromInput(input));
 			
-			StreamStorage output = outputService.createOutputFile(assemblyLines);
-			response.setOutput(output);
+			this.generateResponse(response, parsed, format, listener, reuseOutput);
 			
 			return response;
 		} catch (Exception ex) {
-			StreamStorage outputError = outputService.createErrorOutputFile(ex.getMessage());
+			StreamStorage outputError = reuseOutput 
+					? outputService.createErrorOutputFile(ex.getMessage()) 
+					: outputService.createErrorOutputFile(ex.getMessage(), input.getName());
 			
 			response.setOutput(outputError);
 			
@@ -74,28 +129,211 @@ public class ProcessFileService {
 	}
 	
 	/**
-	 * Get a collection with the step titles, corresponding to the line of the input file.
-	 * @param file
-	 * @return the list of titles or null if there is an error or the file is empty.
-	 * @throws Exception 
+	 * Process the titles received directly, without reading an input file.
+	 * The output file is only written when a format is informed, the errors do not write the error file.
+	 * @param titles the titles of the steps, the blank ones are ignored.
+	 * @param format the format of the output file, or null to not write it.
+	 * @return the response without the input file.
 	 */
-	@SuppressWarnings("unchecked")
-	private List<String> getTitlesFromInput(InputStream stream) {
-		List<String> titles = null;
+	public Response processTitles(List<String> titles, OutputFormat format) {
+		return this.processTitles(titles, format, PlanListener.NONE);
+	}
+	
+	/**
+	 * Process the titles received directly reporting the progress of the solving to the listener.
+	 * @param titles the titles of the steps, the blank ones are ignored.
+	 * @param format the format of the output file, or null to not write it.
+	 * @param listener
+	 * @return the response without the input file.
+	 */
+	public Response processTitles(List<String> titles, OutputFormat format, PlanListener listener) {
+		if(titles == null) {
+			throw new ProcessException("The titles was not informed.");
+		}
+		
+		List<String> steps = new ArrayList<>(titles.size());
+		
+		for (String title : titles) {
+			if(title != null
+					&& !title.isBlank()) {
+				steps.add(title);
+			}
+		}
+		
+		if(steps.isEmpty()) {
+			throw new ProcessException("The titles are empty.");
+		}
+		
+		Response response = Response.builder().build();
 		
 		try {
-			titles = IOUtils.readLines(stream);	
+			this.generateResponse(response, new ParsedTitles(steps, null), format, listener, true);
+		} catch (ProcessException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new ProcessException("It was not possible to generate the assembly lines.", ex, response);
+		}
+		
+		return response;
+	}
+	
+	/**
+	 * Fills the response with the assembly lines of the titles, taken from the cache when the same titles
+	 * were already processed with the same periods.
+	 * @param response
+	 * @param parsed the titles, with their durations when already parsed.
+	 * @param format the format of the output file, or null to not write it.
+	 * @param listener receives the progress, and all assembly lines at once when they come from the cache.
+	 * @param reuseOutput whether the output file stored with the plan is returned when it has the same format.
+	 */
+	private void generateResponse(Response response, ParsedTitles parsed, OutputFormat format, PlanListener listener, 
+			boolean reuseOutput) {
+		List<String> titles = parsed.getTitles();
+		response.setTitles(titles);
+		
+		String key = planCacheService.generateKey(titles);
+		Response cached = planCacheService.get(key);
+		
+		response.setKey(key);
+		
+		if(cached != null) {
+			response.setAssemblyLines(cached.getAssemblyLines());
+			response.setOptimal(cached.getOptimal());
+			response.setLowerBound(cached.getLowerBound());
+			
+			if(listener != PlanListener.NONE) {
+				this.publishCached(cached.getAssemblyLines(), listener);
+			}
+			
+			//The plan is stored once, the output is only written again when another format is wanted.
+			if(format == null) {
+				return;
+			} else if(reuseOutput
+					&& cached.getOutput() != null
+					&& cached.getOutput().getFormat() == format) {
+				response.setOutput(cached.getOutput());
+			} else {
+				response.setOutput(outputService.createOutputFile(cached.getAssemblyLines(), format));
+			}
+			
+			return;
+		}
+		
+		AssemblyPlan plan = this.solve(() -> parsed.getDurations() != null
+				? processStepsService.generatePlan(titles, parsed.getDurations(), listener)
+				: processStepsService.generatePlan(titles, listener));
+		List<AssemblyLine> assemblyLines = plan.getAssemblyLines();
+		response.setAssemblyLines(assemblyLines);
+		response.setOptimal(plan.isOptimal());
+		response.setLowerBound(plan.getLowerBound());
+		
+		if(format != null) {
+			response.setOutput(outputService.createOutputFile(assemblyLines, format));
+		}
+		
+		planCacheService.put(key, response);
+	}
+	
+	private void publishCached(List<AssemblyLine> assemblyLines, PlanListener listener) {
+		assemblyLines.forEach(listener::onAssemblyLine);
+		listener.onProgress(PlanProgress.builder()
+				.linesClosed(assemblyLines.size())
+				.stepsLeft(0)
+				.bestLines(assemblyLines.size())
+				.elapsedMillis(0L)
+				.build());
+	}
+	
+	/**
+	 * Solves the plan on the thread of the request, or on the pool of the solver when the requests are handled
+	 * by virtual threads, so the CPU-bound work is limited to the number of cores.
+	 * @param solver
+	 * @return the plan generated.
+	 */
+	private AssemblyPlan solve(Supplier<AssemblyPlan> solver) {
+		if(threadsProperties.getMode() != ThreadsProperties.Mode.VIRTUAL) {
+			return solver.get();
+		}
+		
+		try {
+			return CompletableFuture.supplyAsync(solver, solverForkJoinPool).join();
+		} catch (CompletionException ex) {
+			if(ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
 			
-			titles = titles.stream().filter(title -> !title.isBlank()).collect(Collectors.toList());
-		} catch (IOException ex) {
+			throw ex;
+		}
+	}
+	
+	/**
+	 * Get a collection with the step titles, corresponding to the non-blank lines of the input file.
+	 * The input stream is always closed, even when the file is read mapped in memory.
+	 * The durations are parsed as the lines are read, so the malformed titles are reported with their line in the file.
+	 * @param input
+	 * @return the list of titles with their durations.
+	 */
+	private ParsedTitles getTitlesFromInput(StreamStorage input) {
+		ParsedTitles parsed;
+		
+		try (InputStream stream = input.getStream()) {
+			if(storageProperties.getReader() == StorageProperties.Reader.PARALLEL_MEMORY_MAPPED
+					&& input.getPath() != null) {
+				parsed = ChunkedTitleParser.parse(Path.of(input.getPath()), solverForkJoinPool);
+			} else if(storageProperties.getReader() == StorageProperties.Reader.MEMORY_MAPPED
+					&& input.getPath() != null) {
+				TitleCollector collector = new TitleCollector();
+				
+				MappedLineReader.forEachLine(Path.of(input.getPath()), collector);
+				parsed = collector.toParsedTitles();
+			} else {
+				TitleCollector collector = new TitleCollector();
+				BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
+				String line;
+				int lineNumber = 0;
+				
+				while((line = reader.readLine()) != null) {
+					collector.accept(line, ++lineNumber);
+				}
+				
+				parsed = collector.toParsedTitles();
+			}
+		} catch (IOException | StorageException ex) {
 			throw new ProcessException("The input file could not be read.");
 		}
 		
-		if(titles.isEmpty()) {
+		if(parsed.getTitles().isEmpty()) {
 			throw new ProcessException("The input file is empty.");
 		}
 		
-		return titles;
+		return parsed;
 	}	
-	
+
+	/**
+	 * Keeps the non-blank lines with their durations, parsed with the number of the line in the file.
+	 */
+	private static class TitleCollector implements ObjIntConsumer<String> {
+		
+		private final List<String> titles = new ArrayList<>();
+		private int[] durations = new int[64];
+		
+		@Override
+		public void accept(String title, int lineNumber) {
+			if(title.isBlank()) {
+				return;
+			}
+			
+			if(titles.size() == durations.length) {
+				durations = Arrays.copyOf(durations, durations.length * 2);
+			}
+			
+			durations[titles.size()] = TitleParser.parseDuration(title, lineNumber);
+			titles.add(title);
+		}
+		
+		private ParsedTitles toParsedTitles() {
+			return new ParsedTitles(titles, Arrays.copyOf(durations, titles.size()));
+		}
+	}
+
 }
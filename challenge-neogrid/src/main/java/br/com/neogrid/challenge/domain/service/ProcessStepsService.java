@@ -2,19 +2,41 @@ package br.com.neogrid.challenge.domain.service;
 
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.util.NumberUtils;
 
+import br.com.neogrid.challenge.core.metrics.PlanMetrics;
+import br.com.neogrid.challenge.core.solver.SolverProperties;
 import br.com.neogrid.challenge.core.storage.PeriodProperties;
 import br.com.neogrid.challenge.domain.exception.ProcessException;
 import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.AssemblyPlan;
+import br.com.neogrid.challenge.domain.model.PlanProgress;
 import br.com.neogrid.challenge.domain.model.Step;
+import br.com.neogrid.challenge.domain.parser.ChunkedTitleParser;
+import br.com.neogrid.challenge.domain.parser.TitleParser;
+import br.com.neogrid.challenge.domain.solver.BinPackingSolver;
+import br.com.neogrid.challenge.domain.solver.BinPackingSolver.Packing;
+import br.com.neogrid.challenge.domain.solver.DurationHistogram;
+import br.com.neogrid.challenge.domain.solver.PeriodFill;
+import br.com.neogrid.challenge.domain.solver.StepPlan;
+import br.com.neogrid.challenge.infrastructure.jfr.PeriodFillEvent;
 
 /**
  * Processes the titles with the production steps applying the restrictions to generate the corresponding assembly lines.
@@ -30,31 +52,349 @@ public class ProcessStepsService {
 	@Autowired
 	private PeriodProperties periodProperties;
 	
+	@Autowired
+	private SolverProperties solverProperties;
+	
+	@Autowired
+	private ForkJoinPool solverForkJoinPool;
+	
+	@Autowired
+	private PlanMetrics planMetrics;
+	
 	/**
 	 * 
 	 * @param titles
 	 * @return the list of assembly lines, never null.
 	 */
 	public List<AssemblyLine> generateAssemblyLine(List<String> titles) {
+		return this.generatePlan(titles).getAssemblyLines();
+	}
+	
+	/**
+	 * Generates the assembly lines within the time limit of the solver.
+	 * The solvers work on a {@link StepPlan}, the steps of the assembly lines are only created at the end.
+	 * @param titles
+	 * @return the best plan found, with whether it is proven optimal.
+	 */
+	public AssemblyPlan generatePlan(List<String> titles) {
+		return this.generatePlan(titles, PlanListener.NONE);
+	}
+	
+	/**
+	 * Generates the assembly lines reporting the progress to the listener.
+	 * @param titles
+	 * @param listener
+	 * @return the best plan found, with whether it is proven optimal.
+	 */
+	public AssemblyPlan generatePlan(List<String> titles, PlanListener listener) {
 		if(titles == null
 				|| titles.isEmpty()) {
 			throw new ProcessException("The tiles was not informed.");
 		}
 		
-		List<AssemblyLine> assemblyLines = new ArrayList<>();
-		List<Step> steps = this.generateSteps(titles);
+		return this.generatePlan(this.generateStepPlan(titles), listener);
+	}
+	
+	/**
+	 * Generates the assembly lines of the titles whose durations were already parsed.
+	 * @param titles
+	 * @param durations the duration in minutes of each title.
+	 * @return the best plan found, with whether it is proven optimal.
+	 */
+	public AssemblyPlan generatePlan(List<String> titles, int[] durations) {
+		return this.generatePlan(titles, durations, PlanListener.NONE);
+	}
+	
+	/**
+	 * Generates the assembly lines of the titles whose durations were already parsed, reporting the progress to the listener.
+	 * @param titles
+	 * @param durations the duration in minutes of each title.
+	 * @param listener
+	 * @return the best plan found, with whether it is proven optimal.
+	 */
+	public AssemblyPlan generatePlan(List<String> titles, int[] durations, PlanListener listener) {
+		if(titles == null
+				|| titles.isEmpty()) {
+			throw new ProcessException("The tiles was not informed.");
+		}
+		
+		if(durations == null
+				|| durations.length != titles.size()) {
+			throw new ProcessException("The durations do not match the titles.");
+		}
+		
+		return this.generatePlan(new StepPlan(titles, durations), listener);
+	}
+	
+	/**
+	 * The packing can move any step until the solver returns, so the assembly lines are only final at the end.
+	 * Meanwhile the listener receives each better number of lines found.
+	 */
+	private AssemblyPlan generatePlan(StepPlan stepPlan, PlanListener listener) {
+		AssemblyPlan plan = null;
+		long start = System.nanoTime();
+		
+		listener.onProgress(this.createProgress(0, stepPlan.size(), null, start));
 		
 		try {
-			assemblyLines = this.generateAssemblyLines(steps);
+			plan = planMetrics.record(PlanMetrics.STAGE_SOLVE, () -> this.solve(stepPlan, listener, start));
 		} catch (Exception ex) {
 			throw new ProcessException("It was not possible to generate the assembly lines", ex);
 		}
 		
-		if(!steps.isEmpty()) {
+		if(!stepPlan.isComplete()) {
 			throw new ProcessException("There are steps that are longer than the length of the periods.");
 		}
 		
-		return assemblyLines;
+		planMetrics.recordPlan(stepPlan.getLines(), stepPlan.getTotalMinutes(), this.getTotalPeriodLength());
+		plan.setAssemblyLines(planMetrics.record(PlanMetrics.STAGE_ASSEMBLY_LINES, () -> this.createAssemblyLines(stepPlan)));
+		
+		if(listener != PlanListener.NONE) {
+			this.publishAssemblyLines(plan.getAssemblyLines(), stepPlan.size(), start, listener);
+		}
+		
+		return plan;
+	}
+	
+	private AssemblyPlan solve(StepPlan stepPlan, PlanListener listener, long start) {
+		if(solverProperties.getMode() == SolverProperties.Mode.BRANCH_AND_BOUND
+				|| solverProperties.getMode() == SolverProperties.Mode.PARALLEL_BRANCH_AND_BOUND) {
+			return this.solveBinPacking(
+					stepPlan, 
+					lines -> listener.onProgress(this.createProgress(0, stepPlan.size(), lines, start))
+				);
+		} else if(solverProperties.getMode() == SolverProperties.Mode.DURATION_HISTOGRAM) {
+			return this.solveDurationHistogram(stepPlan);
+		} else {
+			return this.solvePeriodFill(stepPlan);
+		}
+	}
+	
+	/**
+	 * Sends each assembly line to the listener, followed by the progress with it closed.
+	 */
+	private void publishAssemblyLines(List<AssemblyLine> assemblyLines, int steps, long start, PlanListener listener) {
+		int stepsLeft = steps;
+		int linesClosed = 0;
+		
+		for (AssemblyLine assemblyLine : assemblyLines) {
+			for (Step step : assemblyLine.getSteps()) {
+				if(!this.isBreak(step)) {
+					stepsLeft--;
+				}
+			}
+			
+			listener.onAssemblyLine(assemblyLine);
+			listener.onProgress(this.createProgress(++linesClosed, stepsLeft, assemblyLines.size(), start));
+		}
+	}
+	
+	private PlanProgress createProgress(int linesClosed, int stepsLeft, Integer bestLines, long start) {
+		return PlanProgress.builder()
+				.linesClosed(linesClosed)
+				.stepsLeft(stepsLeft)
+				.bestLines(bestLines)
+				.elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+				.build();
+	}
+	
+	/**
+	 * Re-plans the assembly lines after steps were added or removed. Only the assembly lines with removed steps,
+	 * the ones chosen to receive the added steps and their neighbours are solved again, the others are kept as they were.
+	 * New assembly lines are appended when the steps do not fit in those.
+	 * The assembly lines left without steps are dropped and the remaining ones are numbered again.
+	 * @param assemblyLines the current assembly lines.
+	 * @param added titles of the steps to be added.
+	 * @param removed titles of the steps to be removed.
+	 * @return the updated plan.
+	 */
+	public AssemblyPlan replan(List<AssemblyLine> assemblyLines, List<String> added, List<String> removed) {
+		if(assemblyLines == null) {
+			throw new ProcessException("The assembly lines was not informed.");
+		}
+		
+		List<String> addedTitles = added == null ? Collections.emptyList() : added;
+		List<String> removedTitles = removed == null ? Collections.emptyList() : removed;
+		int morningFinish = StepPlan.toMinuteOfDay(periodProperties.getMorning().getFinish());
+		//The free minutes of each period of each assembly line.
+		int[][] free = new int[2][assemblyLines.size()];
+		Map<String, Deque<Integer>> linesByTitle = new HashMap<>();
+		long totalMinutes = 0;
+		
+		for (int line = 0; line < assemblyLines.size(); line++) {
+			free[BinPackingSolver.MORNING][line] = this.getMorningPeriodLength().intValue();
+			free[BinPackingSolver.AFTERNOON][line] = this.getAfternoonPeriodLength().intValue();
+			
+			for (Step step : assemblyLines.get(line).getSteps()) {
+				if(this.isBreak(step)) {
+					continue;
+				}
+				
+				int period = StepPlan.toMinuteOfDay(step.getTime()) < morningFinish 
+						? BinPackingSolver.MORNING 
+						: BinPackingSolver.AFTERNOON;
+				
+				free[period][line] -= step.getTimeInMinutes();
+				totalMinutes += step.getTimeInMinutes();
+				linesByTitle.computeIfAbsent(step.getTitle(), title -> new ArrayDeque<>()).add(line);
+			}
+		}
+		
+		Set<Integer> affected = new TreeSet<>();
+		Map<Integer, List<String>> removedByLine = new HashMap<>();
+		
+		for (String title : removedTitles) {
+			Deque<Integer> lines = linesByTitle.get(title);
+			
+			if(lines == null
+					|| lines.isEmpty()) {
+				throw new ProcessException(String.format("The step \"%s\" was not found in the assembly lines.", title));
+			}
+			
+			int line = lines.poll();
+			
+			removedByLine.computeIfAbsent(line, key -> new ArrayList<>()).add(title);
+			affected.add(line);
+		}
+		
+		StepPlan addedPlan = this.generateStepPlan(addedTitles);
+		
+		//Each added step goes to the period that is left with the least free time, the longest steps first.
+		for (int step : addedPlan.orderByDurationDescending()) {
+			int duration = addedPlan.getDurations()[step];
+			int bestLine = -1;
+			int bestPeriod = -1;
+			
+			for (int line = 0; line < assemblyLines.size(); line++) {
+				for (int period = BinPackingSolver.MORNING; period <= BinPackingSolver.AFTERNOON; period++) {
+					if(free[period][line] >= duration
+							&& (bestLine == -1 || free[period][line] < free[bestPeriod][bestLine])) {
+						bestLine = line;
+						bestPeriod = period;
+					}
+				}
+			}
+			
+			if(bestLine != -1) {
+				free[bestPeriod][bestLine] -= duration;
+				affected.add(bestLine);
+			}
+			
+			totalMinutes += duration;
+		}
+		
+		//The neighbours of the affected assembly lines are solved together for rebalancing.
+		List<Integer> neighbourhood = new ArrayList<>();
+		
+		for (int line = 0; line < assemblyLines.size(); line++) {
+			if(affected.contains(line)
+					|| affected.contains(line - 1)
+					|| affected.contains(line + 1)) {
+				neighbourhood.add(line);
+			}
+		}
+		
+		List<String> titles = new ArrayList<>();
+		List<Integer> durations = new ArrayList<>();
+		
+		for (int line : neighbourhood) {
+			List<String> removedFromLine = new ArrayList<>(removedByLine.getOrDefault(line, Collections.emptyList()));
+			
+			for (Step step : assemblyLines.get(line).getSteps()) {
+				if(this.isBreak(step)) {
+					continue;
+				}
+				
+				if(removedFromLine.remove(step.getTitle())) {
+					totalMinutes -= step.getTimeInMinutes();
+					continue;
+				}
+				
+				titles.add(step.getTitle());
+				durations.add(step.getTimeInMinutes());
+			}
+		}
+		
+		titles.addAll(addedTitles);
+		
+		for (int duration : addedPlan.getDurations()) {
+			durations.add(duration);
+		}
+		
+		StepPlan stepPlan = new StepPlan(titles, durations.stream().mapToInt(Integer::intValue).toArray());
+		int[] pending = stepPlan.orderByDurationDescending();
+		int lines = neighbourhood.size();
+		
+		pending = this.fillPeriodForAllAssemblyLines(
+				stepPlan, pending, 0, lines, 
+				periodProperties.getMorning().getBegin(), periodProperties.getMorning().getFinish()
+			);
+		pending = this.fillPeriodForAllAssemblyLines(
+				stepPlan, pending, 0, lines, 
+				periodProperties.getAfternoon().getBegin(), periodProperties.getAfternoon().getLaborGymMax()
+			);
+		
+		while(pending.length > 0) {
+			int before = pending.length;
+			
+			pending = this.fillPeriodForAllAssemblyLines(
+					stepPlan, pending, lines, lines + 1, 
+					periodProperties.getMorning().getBegin(), periodProperties.getMorning().getFinish()
+				);
+			pending = this.fillPeriodForAllAssemblyLines(
+					stepPlan, pending, lines, lines + 1, 
+					periodProperties.getAfternoon().getBegin(), periodProperties.getAfternoon().getLaborGymMax()
+				);
+			
+			if(pending.length == before) {
+				throw new ProcessException("There are steps that are longer than the length of the periods.");
+			}
+			
+			lines++;
+		}
+		
+		stepPlan.setLines(lines);
+		
+		List<AssemblyLine> solved = this.createAssemblyLines(stepPlan);
+		List<AssemblyLine> result = new ArrayList<>(assemblyLines);
+		
+		for (int index = 0; index < solved.size(); index++) {
+			AssemblyLine assemblyLine = solved.get(index);
+			
+			if(index < neighbourhood.size()) {
+				int line = neighbourhood.get(index);
+				
+				assemblyLine.setNumber(assemblyLines.get(line).getNumber());
+				result.set(line, assemblyLine);
+			} else {
+				assemblyLine.setNumber(result.size() + 1);
+				result.add(assemblyLine);
+			}
+		}
+		
+		//The assembly lines left only with the lunch and the labor gymnastics are dropped.
+		if(result.removeIf(assemblyLine -> assemblyLine.getSteps().stream().allMatch(this::isBreak))) {
+			for (int index = 0; index < result.size(); index++) {
+				result.get(index).setNumber(index + 1);
+			}
+		}
+		
+		int lowerBound = (int) ((totalMinutes + this.getTotalPeriodLength() - 1) / this.getTotalPeriodLength());
+		
+		return AssemblyPlan.builder()
+				.assemblyLines(result)
+				.lowerBound(lowerBound)
+				.optimal(result.size() <= lowerBound)
+				.build();
+	}
+	
+	/**
+	 * @param step
+	 * @return whether the step is the lunch or the labor gymnastics.
+	 */
+	private boolean isBreak(Step step) {
+		return STEP_TITLE_LUNCH.equals(step.getTitle())
+				|| STEP_TITLE_LABOR_GYM.equals(step.getTitle());
 	}
 	
 	/**
@@ -110,20 +450,31 @@ public class ProcessStepsService {
 	 * @return the list of steps, never null.
 	 */
 	public List<Step> generateSteps(List<String> titles) {
+		return planMetrics.record(PlanMetrics.STAGE_STEPS, () -> this.createSteps(titles));
+	}
+	
+	private List<Step> createSteps(List<String> titles) {
 		List<Step> steps = new ArrayList<>();
-				
+		
 		if(titles != null) {
+			int[] durations = new int[titles.size()];
+			int index = 0;
+			
 			for (String title : titles) {
-				Step step = Step.builder()
-						.title(title)
-						.timeInMinutes(this.getStepDurationInMinutes(title))
-						.build();
-				steps.add(step);
-			};
+				durations[index++] = this.getStepDurationInMinutes(title);
+			}
+			
+			StepPlan stepPlan = new StepPlan(titles, durations);
 			
-			steps.sort(Comparator.comparingInt(Step::getTimeInMinutes).reversed());
+			for (int step : stepPlan.orderByDurationDescending()) {
+				Step item = Step.builder()
+						.title(stepPlan.getTitles()[step])
+						.timeInMinutes(durations[step])
+						.build();
+				steps.add(item);
+			}
 		}
-				
+		
 		return steps;
 	}
 	
@@ -142,48 +493,340 @@ public class ProcessStepsService {
 			throw new ProcessException("The title must be informed.");
 		}
 		
-		String numbers = title.replaceAll("[^0-9]+", "");
+		int minutes = TitleParser.parseDuration(title);
 		
-		if(numbers.isBlank()) {
-			if(title.toLowerCase().contains("maintenance")) {
-				numbers = "5";
-			}
-			else {
-				throw new ProcessException("The time in minutes for the step is missing.");
-			}
+		if(minutes == TitleParser.MISSING) {
+			throw new ProcessException("The time in minutes for the step is missing.");
+		}
+		
+		if(minutes == TitleParser.OVERFLOW) {
+			throw new ProcessException("The time in minutes for the step is too long.");
 		}
 		
-		return NumberUtils.parseNumber(numbers, Integer.class);
+		return minutes;
 	}
 	
 	/**
-	 * 
+	 * Generates the plan with the title and the duration in minutes of each step.
+	 * The malformed titles are reported with their line in the list, long lists are parsed in chunks.
+	 * @param titles
+	 * @return the plan with no step placed yet.
+	 */
+	private StepPlan generateStepPlan(List<String> titles) {
+		return planMetrics.record(
+				PlanMetrics.STAGE_STEPS, 
+				() -> new StepPlan(titles, ChunkedTitleParser.parseDurations(titles, solverForkJoinPool))
+			);
+	}
+	
+	/**
+	 * Fills the morning and then the afternoon of each assembly line with {@link PeriodFill}.
+	 * The number of assembly lines is defined by the total time of the steps by the maximum number of hours worked per day.
 	 * Constraints:
 	 * - The production has multiple assembly lines and each one has the morning, lunch and afternoon periods. 
 	 * - It won't have interval between the process steps.
-	 * @param steps
-	 * @return
-	 * @throws Exception 
+	 * @param stepPlan
+	 * @return the plan without the assembly lines, those are created after checking that every step was placed.
 	 */
-	private List<AssemblyLine> generateAssemblyLines(List<Step> steps) {
-		List<AssemblyLine> assemblyLines = this.createNewArrayListAssemblyLines(steps);
+	private AssemblyPlan solvePeriodFill(StepPlan stepPlan) {
+		int lines = (int) ((stepPlan.getTotalMinutes() + this.getTotalPeriodLength() - 1) / this.getTotalPeriodLength());
+		int[] pending = stepPlan.orderByDurationDescending();
 		
-		this.addMorningConsumingStepsForAllAssemblyLines(assemblyLines, steps);
-		this.addLunchToAssemblyLines(assemblyLines);
-		this.addAfternoonConsumingStepsForAllAssemblyLines(assemblyLines, steps);
-		this.addLaborGymnasticsToAssemblyLines(assemblyLines);
+		pending = this.fillPeriodForAllAssemblyLines(
+				stepPlan, 
+				pending, 
+				0, 
+				lines, 
+				periodProperties.getMorning().getBegin(), 
+				periodProperties.getMorning().getFinish()
+			);
+		this.fillPeriodForAllAssemblyLines(
+				stepPlan, 
+				pending, 
+				0, 
+				lines, 
+				periodProperties.getAfternoon().getBegin(), 
+				periodProperties.getAfternoon().getLaborGymMax()
+			);
+		
+		stepPlan.setLines(lines);
+		
+		//The number of lines is the lower bound itself, so when every step is placed the plan is optimal.
+		return AssemblyPlan.builder()
+				.lowerBound(lines)
+				.optimal(true)
+				.build();
+	}
+	
+	/**
+	 * Places steps in the period of each assembly line from the first line up to, not including, the last line.
+	 * @param stepPlan
+	 * @param pending the steps not placed yet.
+	 * @param firstLine
+	 * @param lastLine
+	 * @param timeBegin
+	 * @param timeFinish
+	 * @return the steps still not placed, in the same order.
+	 */
+	private int[] fillPeriodForAllAssemblyLines(StepPlan stepPlan, int[] pending, int firstLine, int lastLine, 
+			LocalTime timeBegin, LocalTime timeFinish) {
+		int begin = StepPlan.toMinuteOfDay(timeBegin);
+		int capacity = StepPlan.toMinuteOfDay(timeFinish) - begin;
+		int[] durations = new int[pending.length];
+		int count = pending.length;
+		
+		for (int line = firstLine; line < lastLine && count > 0; line++) {
+			PeriodFillEvent event = new PeriodFillEvent();
+			
+			event.begin();
+			
+			for (int index = 0; index < count; index++) {
+				durations[index] = stepPlan.getDurations()[pending[index]];
+			}
+			
+			int[] chosen = PeriodFill.fill(durations, count, capacity);
+			int minute = begin;
+			int kept = 0;
+			int next = 0;
+			
+			for (int index = 0; index < count; index++) {
+				if(next < chosen.length
+						&& chosen[next] == index) {
+					stepPlan.place(pending[index], line, minute);
+					minute += durations[index];
+					next++;
+				} else {
+					pending[kept++] = pending[index];
+				}
+			}
+			
+			event.end();
+			
+			if(event.shouldCommit()) {
+				this.commit(event, line + 1, begin, count, capacity, chosen.length, minute - begin);
+			}
+			
+			count = kept;
+		}
+		
+		return Arrays.copyOf(pending, count);
+	}
+	
+	/**
+	 * Fills the event of the fill of a period, only called when it is recorded.
+	 * @param line the number of the assembly line, zero when the period is filled alone.
+	 */
+	private void commit(PeriodFillEvent event, int line, int begin, int candidates, int capacity, 
+			int chosenSteps, int chosenMinutes) {
+		event.line = line;
+		event.period = begin < StepPlan.toMinuteOfDay(periodProperties.getMorning().getFinish()) 
+				? PeriodFillEvent.MORNING 
+				: PeriodFillEvent.AFTERNOON;
+		event.candidates = candidates;
+		event.capacity = capacity;
+		event.chosenSteps = chosenSteps;
+		event.chosenMinutes = chosenMinutes;
+		event.commit();
+	}
+	
+	/**
+	 * Fills the morning and then the afternoon of each assembly line like {@link #solvePeriodFill(StepPlan)},
+	 * but on the {@link DurationHistogram} of the steps. The same fill is repeated on the next assembly lines
+	 * while there are steps for it, since it is still the longest one.
+	 * @param stepPlan
+	 * @return the plan without the assembly lines, those are created after checking that every step was placed.
+	 */
+	private AssemblyPlan solveDurationHistogram(StepPlan stepPlan) {
+		int lines = (int) ((stepPlan.getTotalMinutes() + this.getTotalPeriodLength() - 1) / this.getTotalPeriodLength());
+		DurationHistogram histogram = new DurationHistogram(stepPlan.getDurations(), stepPlan.orderByDurationDescending());
+		
+		this.fillPeriodForAllAssemblyLines(
+				stepPlan, 
+				histogram, 
+				lines, 
+				periodProperties.getMorning().getBegin(), 
+				periodProperties.getMorning().getFinish()
+			);
+		this.fillPeriodForAllAssemblyLines(
+				stepPlan, 
+				histogram, 
+				lines, 
+				periodProperties.getAfternoon().getBegin(), 
+				periodProperties.getAfternoon().getLaborGymMax()
+			);
+		
+		stepPlan.setLines(lines);
+		
+		return AssemblyPlan.builder()
+				.lowerBound(lines)
+				.optimal(true)
+				.build();
+	}
+	
+	/**
+	 * Places steps taken from the histogram in the period of each assembly line.
+	 * @param stepPlan
+	 * @param histogram the steps not placed yet.
+	 * @param lines
+	 * @param timeBegin
+	 * @param timeFinish
+	 */
+	private void fillPeriodForAllAssemblyLines(StepPlan stepPlan, DurationHistogram histogram, int lines, 
+			LocalTime timeBegin, LocalTime timeFinish) {
+		int begin = StepPlan.toMinuteOfDay(timeBegin);
+		int capacity = StepPlan.toMinuteOfDay(timeFinish) - begin;
+		int line = 0;
+		
+		while(line < lines
+				&& histogram.hasSteps()) {
+			PeriodFillEvent event = new PeriodFillEvent();
+			
+			event.begin();
+			
+			int[] chosen = histogram.fill(capacity);
+			int repetitions = Math.min(histogram.repetitions(chosen), lines - line);
+			
+			event.end();
+			
+			if(event.shouldCommit()) {
+				int candidates = 0;
+				int chosenSteps = 0;
+				int chosenMinutes = 0;
+				
+				for (int value = 0; value < histogram.distinct(); value++) {
+					candidates += histogram.getCount(value);
+					chosenSteps += chosen[value];
+					chosenMinutes += chosen[value] * histogram.getValue(value);
+				}
+				
+				this.commit(event, line + 1, begin, candidates, capacity, chosenSteps, chosenMinutes);
+			}
+			
+			if(repetitions == 0) {
+				break;
+			}
+			
+			for (int repetition = 0; repetition < repetitions; repetition++, line++) {
+				int minute = begin;
+				
+				for (int value = 0; value < histogram.distinct(); value++) {
+					for (int times = 0; times < chosen[value]; times++) {
+						stepPlan.place(histogram.take(value), line, minute);
+						minute += histogram.getValue(value);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Distributes the steps on the minimum number of assembly lines found by {@link BinPackingSolver}.
+	 * The steps longer than the periods are not placed.
+	 * @param stepPlan
+	 * @param improvementListener receives the number of lines of each better packing found.
+	 * @return the plan without the assembly lines, those are created after checking that every step was placed.
+	 */
+	private AssemblyPlan solveBinPacking(StepPlan stepPlan, IntConsumer improvementListener) {
+		BinPackingSolver solver = new BinPackingSolver(
+				this.getMorningPeriodLength().intValue(), 
+				this.getAfternoonPeriodLength().intValue(), 
+				solverProperties.getBacktrackLimit(),
+				solverProperties.getMaxMillis()
+			);
+		int[] order = stepPlan.orderByDurationDescending();
+		int[] packable = new int[order.length];
+		int[] durations = new int[order.length];
+		int count = 0;
+		
+		solver.setImprovementListener(improvementListener);
+		
+		for (int step : order) {
+			if(stepPlan.getDurations()[step] <= solver.getMaxCapacity()) {
+				packable[count] = step;
+				durations[count++] = stepPlan.getDurations()[step];
+			}
+		}
+		
+		durations = Arrays.copyOf(durations, count);
+		
+		Packing packing = solverProperties.getMode() == SolverProperties.Mode.PARALLEL_BRANCH_AND_BOUND
+				? solver.solve(durations, solverForkJoinPool)
+				: solver.solve(durations);
+		
+		planMetrics.recordBacktracks(solver.getBacktracks());
+		
+		//The next start time of each period of each assembly line.
+		int[][] minutes = new int[2][packing.getLines()];
+		
+		Arrays.fill(minutes[BinPackingSolver.MORNING], StepPlan.toMinuteOfDay(periodProperties.getMorning().getBegin()));
+		Arrays.fill(minutes[BinPackingSolver.AFTERNOON], StepPlan.toMinuteOfDay(periodProperties.getAfternoon().getBegin()));
+		
+		for (int index = 0; index < count; index++) {
+			int line = packing.getLineOf()[index];
+			int period = packing.getPeriodOf()[index];
+			
+			stepPlan.place(packable[index], line, minutes[period][line]);
+			minutes[period][line] += durations[index];
+		}
+		
+		stepPlan.setLines(packing.getLines());
+		
+		return AssemblyPlan.builder()
+				.lowerBound(packing.getLowerBound())
+				.optimal(packing.isOptimal())
+				.build();
+	}
+	
+	/**
+	 * Creates the assembly lines with the steps placed in the plan, adding the lunch and the labor gymnastics.
+	 * @param stepPlan
+	 * @return the list of assembly lines, never null.
+	 */
+	private List<AssemblyLine> createAssemblyLines(StepPlan stepPlan) {
+		List<AssemblyLine> assemblyLines = this.createNewArrayListAssemblyLines(stepPlan.getLines());
+		int lunch = StepPlan.toMinuteOfDay(periodProperties.getMorning().getFinish());
+		int[] order = stepPlan.orderByLineAndStart();
+		int index = 0;
+		
+		for (AssemblyLine assemblyLine : assemblyLines) {
+			int line = assemblyLine.getNumber() - 1;
+			boolean hasLunch = false;
+			
+			while(index < order.length
+					&& stepPlan.getLineIndex()[order[index]] == line) {
+				int step = order[index++];
+				int start = stepPlan.getStartMinuteOfDay()[step];
+				
+				if(!hasLunch && start >= lunch) {
+					assemblyLine.getSteps().add(this.createStepLunch(assemblyLine));
+					hasLunch = true;
+				}
+				
+				assemblyLine.getSteps().add(
+						Step.builder()
+							.title(stepPlan.getTitles()[step])
+							.timeInMinutes(stepPlan.getDurations()[step])
+							.time(StepPlan.toLocalTime(start))
+							.build()
+					);
+			}
+			
+			if(!hasLunch) {
+				assemblyLine.getSteps().add(this.createStepLunch(assemblyLine));
+			}
+			
+			assemblyLine.getSteps().add(this.createStepLaborGymnastics(assemblyLine));
+		}
 		
 		return assemblyLines;
 	}
 	
 	/**
-	 * Create a list of assembly lines.
-	 * The number of assembly lines is defined by the total time of the steps by the maximum number of hours worked per day.
+	 * Create a list with the number of assembly lines informed.
 	 * @return
 	 */
-	private List<AssemblyLine> createNewArrayListAssemblyLines(List<Step> steps) {
+	private List<AssemblyLine> createNewArrayListAssemblyLines(Integer totalAssemblylines) {
 		List<AssemblyLine> assemblyLines = new ArrayList<>();
-		Integer totalAssemblylines = this.countAssemblylines(steps, this.getTotalPeriodLength());
 		Integer countAssemblyLine = 0;
 		
 		while(countAssemblyLine < totalAssemblylines) {			
@@ -277,36 +920,6 @@ public class ProcessStepsService {
 		return time;
 	}
 	
-	/**
-	 * Adds the morning period for all assembly lines.
-	 * The steps included in the assembly line are removed from the steps list.
-	 * @param assemblyLines
-	 * @param steps
-	 */
-	private void addMorningConsumingStepsForAllAssemblyLines(List<AssemblyLine> assemblyLines, List<Step> steps) {
-		this.addAndConsumingStepsForAllAssemblyLines(
-				assemblyLines, 
-				steps, 
-				periodProperties.getMorning().getBegin(), 
-				periodProperties.getMorning().getFinish()
-			);
-	}
-		
-	/**
-	 * Adds the afternoon period for all assembly lines.
-	 * The steps included in the assembly line are removed from the steps list.
-	 * @param assemblyLines
-	 * @param steps
-	 */
-	private void addAfternoonConsumingStepsForAllAssemblyLines(List<AssemblyLine> assemblyLines, List<Step> steps) {
-		this.addAndConsumingStepsForAllAssemblyLines(
-				assemblyLines, 
-				steps, 
-				periodProperties.getAfternoon().getBegin(), 
-				periodProperties.getAfternoon().getLaborGymMax()
-			);
-	}
-	
 	/**
 	 * Adds steps for all assembly lines.
 	 * The steps included in the assembly line are removed from the steps list.
@@ -321,28 +934,14 @@ public class ProcessStepsService {
 		for (AssemblyLine assemblyLine : assemblyLines) {
 			List<Step> periodSteps = this.createStepsRecursive(steps, timeBegin, timeFinish);
 			
+			Set<Step> consumed = Collections.newSetFromMap(new IdentityHashMap<>());
+			
+			consumed.addAll(periodSteps);
 			assemblyLine.getSteps().addAll(periodSteps);
-			steps.removeAll(periodSteps);
+			steps.removeIf(consumed::contains);
 		}
 	}
 	
-	/**
-	 * 
-	 * @param stepsA
-	 * @param stepsB
-	 * @return the list with the steps that has the longest duration.
-	 */
-	private List<Step> maxStepsMinutes(List<Step> stepsA, List<Step> stepsB) {
-		int totalA = getTotalMinutes(stepsA);
-		int totalB = getTotalMinutes(stepsB);
-		
-		if(totalA > totalB) {
-			return stepsA;
-		}
-		
-		return stepsB;
-	}
-	
 	/**
 	 * 
 	 * @param steps
@@ -351,21 +950,6 @@ public class ProcessStepsService {
 	public Integer getTotalMinutes(List<Step> steps) {
 		return steps == null ? 0 : steps.stream().mapToInt(step -> step.getTimeInMinutes()).sum();
 	}
-
-	/**
-	 * 
-	 * @param steps
-	 * @return the next time to start the step, consider the last step of the list plus the time to perform that step.
-	 */
-	private LocalTime getNextTime(List<Step> steps) {
-		Step step = this.getLastStep(steps);
-		
-		if(step != null) {
-			return step.getTime().plusMinutes(step.getTimeInMinutes());
-		}
-		
-		return null;
-	}
 	
 	/**
 	 * 
@@ -377,103 +961,51 @@ public class ProcessStepsService {
 				.max(Comparator.comparing(Step::getTime))
 				.orElse(null);
 	}
-
+	
 	/**
 	 * Go through the list of process steps that have not yet been distributed on any assembly lines.
-	 * Checking all combinations until you find one that has exactly the same duration as the period or the longest found.
+	 * The combination with exactly the same duration as the period, or the longest found, is chosen by {@link PeriodFill}.
 	 * @param steps
-	 * @param periodLength
-	 * @param time
+	 * @param timeBegin
+	 * @param timeFinish
 	 * @return the list steps, never null.
 	 */
 	public List<Step> createStepsRecursive(List<Step> steps, LocalTime timeBegin, LocalTime timeFinish) {
-		List<Step> periodStepsMax = new ArrayList<>();
-		
-		if(steps != null && timeBegin != null && timeFinish != null) {
-			List<Step> recursive = null;
-			List<Step> periodSteps = null;
-			LocalTime time = null;
-			//Indicates the beginning of the list for recursion.
-			//The element of this index remains fixed until it is tested with all combinations.
-			int indexStart = 0;
-			int indexRemove = 0;
-			int max = 0;
-			int total = 0;
-			
-			do {
-				recursive = new ArrayList<>();
-				
-				if(indexStart < steps.size()) {
-					recursive = steps.subList(indexStart, steps.size()).stream().collect(Collectors.toList());
-					//When starting a new combination the total duration of the steps must be recalculated.
-					if(indexRemove == 0) {
-						total = this.getTotalMinutes(recursive);
-					}
-				}
-				
-				if(indexRemove > 0
-						&& indexRemove < recursive.size()) {
-					//Removes an element from the list to perform calculations with a new combination.
-					recursive.remove(indexRemove);
-				}
-				
-				periodSteps = this.createSteps(recursive, timeBegin, timeFinish);
-				
-				periodStepsMax = this.maxStepsMinutes(periodSteps, periodStepsMax);
-				
-				max = this.getTotalMinutes(periodStepsMax);
-				if(max == total) {
-					break;
-				}
-				
-				time = this.getNextTime(periodSteps);
-				if(timeFinish.equals(time)) {
-					break;
-				}
-								
-				indexRemove++;
-					
-				if(indexRemove >= (steps.size()-1)) {
-					indexRemove = 0;
-					indexStart++;
-				}
-				
-			} while(!recursive.isEmpty());	
-		}		
-		
-		return periodStepsMax;
-	}
-	
-	/**
-	 * Go through the list of process steps that have not yet been distributed on any assembly lines
-	 * and perform the calculations with the duration of the step,
-	 * generating a new list of steps that have a total duration less than or equal to the period.
-	 * @param steps
-	 * @param periodLength
-	 * @param time
-	 * @return the steps from period, never null.
-	 */
-	private List<Step> createSteps(List<Step> steps, LocalTime timeBegin, LocalTime timeFinish) {
 		List<Step> periodSteps = new ArrayList<>();
 		
 		if(steps != null && timeBegin != null && timeFinish != null) {
+			int capacity = (int) timeBegin.until(timeFinish, ChronoUnit.MINUTES);
+			int[] durations = new int[steps.size()];
+			
+			for (int index = 0; index < durations.length; index++) {
+				durations[index] = steps.get(index).getTimeInMinutes();
+			}
+			
 			LocalTime time = timeBegin;
-		
-			for (Step step : steps) {
-				if(timeFinish.compareTo(time.plusMinutes(step.getTimeInMinutes())) >= 0) {				 
-					 step.setTime(time);
-					 time = time.plusMinutes(step.getTimeInMinutes());
-					 
-					 periodSteps.add(step);
-					 
-					 if(time.equals(timeFinish)) {
-						 break;
-					 }
-				 } 
+			PeriodFillEvent event = new PeriodFillEvent();
+			
+			event.begin();
+			
+			int[] chosen = PeriodFill.fill(durations, capacity);
+			
+			event.end();
+			
+			if(event.shouldCommit()) {
+				this.commit(event, 0, StepPlan.toMinuteOfDay(timeBegin), durations.length, capacity, 
+						chosen.length, PeriodFill.total(durations, chosen));
+			}
+			
+			for (int index : chosen) {
+				Step step = steps.get(index);
+				
+				step.setTime(time);
+				time = time.plusMinutes(step.getTimeInMinutes());
+				
+				periodSteps.add(step);
 			}
 		}
 		
 		return periodSteps;
 	}
-		
+
 }
@@ -0,0 +1,797 @@
+package br.com.neogrid.challenge.domain.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Branch-and-bound solver that looks for the minimum number of assembly lines.
+ * Each assembly line is treated as two bins, the morning and the afternoon periods.
+ * The number of lines starts at a lower bound and grows one at a time until the steps can be packed
+ * or the best-fit decreasing packing is reached.
+ *
+ * Bins with the same period and the same remaining minutes are interchangeable, so the search branches
+ * over those groups instead of over each bin. A step that fills a bin exactly is not tried anywhere else.
+ *
+ * The search is anytime: when the time limit is reached it returns the best packing found so far,
+ * which is at least the best-fit decreasing one.
+ * @author Divino Martins
+ *
+ */
+public class BinPackingSolver {
+	
+	public static final int MORNING = 0;
+	public static final int AFTERNOON = 1;
+	
+	private static final int FRESH = -1;
+	private static final int EXHAUSTED = Integer.MAX_VALUE;
+	
+	/**
+	 * Number of backtracks between two checks of whether a parallel search must stop.
+	 */
+	private static final int STOP_CHECK_INTERVAL = 1024;
+	
+	/**
+	 * Number of subtrees created for each worker of the pool when the search tree is split.
+	 */
+	private static final int SUBTREES_BY_WORKER = 8;
+	
+	private final int[] capacities;
+	private final int maxCapacity;
+	private final long backtrackLimit;
+	private final long maxMillis;
+	
+	/**
+	 * Receives the number of lines of each packing better than the previous one, on the thread that called solve.
+	 */
+	private IntConsumer improvementListener = lines -> {};
+	
+	/**
+	 * Backtracks of all searches of this solver, added when each search returns.
+	 */
+	private final LongAdder backtracks = new LongAdder();
+	
+	/**
+	 * @param morningCapacity the length in minutes of the morning period.
+	 * @param afternoonCapacity the length in minutes of the afternoon period.
+	 * @param backtrackLimit the maximum number of backtracks for each number of assembly lines tried.
+	 */
+	public BinPackingSolver(int morningCapacity, int afternoonCapacity, long backtrackLimit) {
+		this(morningCapacity, afternoonCapacity, backtrackLimit, 0);
+	}
+	
+	/**
+	 * @param morningCapacity the length in minutes of the morning period.
+	 * @param afternoonCapacity the length in minutes of the afternoon period.
+	 * @param backtrackLimit the maximum number of backtracks for each number of assembly lines tried.
+	 * @param maxMillis the time limit of each solve in milliseconds, zero for no limit.
+	 */
+	public BinPackingSolver(int morningCapacity, int afternoonCapacity, long backtrackLimit, long maxMillis) {
+		this.capacities = new int[] {morningCapacity, afternoonCapacity};
+		this.maxCapacity = Math.max(morningCapacity, afternoonCapacity);
+		this.backtrackLimit = backtrackLimit;
+		this.maxMillis = maxMillis;
+	}
+	
+	public void setImprovementListener(IntConsumer improvementListener) {
+		this.improvementListener = improvementListener;
+	}
+	
+	/**
+	 * @return the number of combinations of steps discarded by the searches of this solver so far.
+	 */
+	public long getBacktracks() {
+		return backtracks.sum();
+	}
+	
+	/**
+	 * @return the duration of the longest step that fits in some period.
+	 */
+	public int getMaxCapacity() {
+		return maxCapacity;
+	}
+	
+	/**
+	 * Distributes the steps on the minimum number of assembly lines.
+	 * @param durations the duration in minutes of each step, none longer than {@link #getMaxCapacity()}.
+	 * @return the assembly line and period of each step.
+	 */
+	public Packing solve(int[] durations) {
+		return this.solve(durations, () -> false);
+	}
+	
+	/**
+	 * Distributes the steps on the minimum number of assembly lines until the search is stopped.
+	 * @param durations the duration in minutes of each step, none longer than {@link #getMaxCapacity()}.
+	 * @param stop true when the search must stop, besides the time limit, and return the best packing found.
+	 * @return the assembly line and period of each step.
+	 */
+	public Packing solve(int[] durations, BooleanSupplier stop) {
+		BooleanSupplier deadline = this.deadline();
+		BooleanSupplier expired = () -> stop.getAsBoolean() || deadline.getAsBoolean();
+		int[] order = this.sortDescending(durations);
+		int[] sorted = this.sorted(durations, order);
+		long[] remaining = this.remaining(sorted);
+		int lowerBound = this.lowerBound(sorted);
+		Packing upper = this.bestFitDecreasing(order, sorted, remaining, lowerBound);
+		
+		improvementListener.accept(upper.getLines());
+		
+		for (int lines = lowerBound; lines < upper.getLines(); lines++) {
+			if(expired.getAsBoolean()) {
+				return upper;
+			}
+			
+			Search search = new Search(sorted, remaining, lines);
+			Boolean feasible = search.run(backtrackLimit, expired);
+			
+			if(Boolean.TRUE.equals(feasible)) {
+				improvementListener.accept(lines);
+				
+				return this.createPacking(order, search, lowerBound, true);
+			}
+			
+			if(feasible == null) {
+				//Growing one line at a time past an unproven number of lines would spend the whole limit on each one,
+				//so the rest of the interval is bisected and the result is no longer proven optimal.
+				return this.bisect(order, sorted, remaining, lines + 1, upper, expired);
+			}
+		}
+		
+		return this.proven(upper);
+	}
+	
+	/**
+	 * Distributes the steps on the minimum number of assembly lines searching on the pool informed.
+	 * Several numbers of lines are tried at the same time and the smallest one packed so far is shared by all of them,
+	 * so the searches that can no longer beat it stop early. The search tree of each number of lines is also split
+	 * by the bins chosen for the first steps.
+	 * @param durations the duration in minutes of each step, none longer than {@link #getMaxCapacity()}.
+	 * @param pool
+	 * @return the assembly line and period of each step.
+	 */
+	public Packing solve(int[] durations, ForkJoinPool pool) {
+		BooleanSupplier expired = this.deadline();
+		int[] order = this.sortDescending(durations);
+		int[] sorted = this.sorted(durations, order);
+		long[] remaining = this.remaining(sorted);
+		int lowerBound = this.lowerBound(sorted);
+		Packing best = this.bestFitDecreasing(order, sorted, remaining, lowerBound);
+		AtomicInteger incumbent = new AtomicInteger(best.getLines());
+		int parallelism = pool.getParallelism();
+		int low = lowerBound;
+		//The largest number of lines proven infeasible, every smaller one is infeasible as well.
+		int infeasible = lowerBound - 1;
+		
+		improvementListener.accept(best.getLines());
+		
+		while(low < incumbent.get()
+				&& !expired.getAsBoolean()) {
+			int high = incumbent.get() - 1;
+			int probes = Math.min(parallelism, high - low + 1);
+			List<ProbeTask> tasks = new ArrayList<>();
+			
+			for (int probe = 0; probe < probes; probe++) {
+				int lines = low + (int) ((long) probe * (high - low + 1) / probes);
+				Search root = new Search(sorted, remaining, lines);
+				
+				tasks.add(new ProbeTask(root, incumbent, expired, parallelism * SUBTREES_BY_WORKER));
+			}
+			
+			tasks.forEach(pool::execute);
+			
+			for (ProbeTask task : tasks) {
+				if(Boolean.TRUE.equals(task.join())) {
+					Packing packing = this.createPacking(order, task.getFound().get(), lowerBound, false);
+					
+					if(packing.getLines() < best.getLines()) {
+						best = packing;
+						improvementListener.accept(best.getLines());
+					}
+				}
+			}
+			
+			for (ProbeTask task : tasks) {
+				int lines = task.getSearch().lines;
+				
+				//The probes stopped by a smaller incumbent say nothing about the numbers of lines below it.
+				if(!Boolean.TRUE.equals(task.join())
+						&& lines < incumbent.get()) {
+					low = Math.max(low, lines + 1);
+					
+					if(Boolean.FALSE.equals(task.join())) {
+						infeasible = Math.max(infeasible, lines);
+					}
+				}
+			}
+		}
+		
+		return infeasible == best.getLines() - 1 ? this.proven(best) : best;
+	}
+	
+	/**
+	 * Searches for the smallest number of lines between the bounds that can be packed within the backtrack limit.
+	 * @param low the smallest number of lines to be tried.
+	 * @param upper a packing already found.
+	 * @param expired
+	 * @return the packing with the smallest number of lines found.
+	 */
+	private Packing bisect(int[] order, int[] sorted, long[] remaining, int low, Packing upper, BooleanSupplier expired) {
+		Packing best = upper;
+		int high = upper.getLines() - 1;
+		
+		while(low <= high
+				&& !expired.getAsBoolean()) {
+			int lines = (low + high) >>> 1;
+			Search search = new Search(sorted, remaining, lines);
+			
+			if(Boolean.TRUE.equals(search.run(backtrackLimit, expired))) {
+				best = this.createPacking(order, search, upper.getLowerBound(), false);
+				high = best.getLines() - 1;
+				improvementListener.accept(best.getLines());
+			} else {
+				low = lines + 1;
+			}
+		}
+		
+		return best;
+	}
+	
+	/**
+	 * With one line for each step nothing backtracks and the first leaf is the best-fit decreasing packing.
+	 * @return the packing used as upper bound.
+	 */
+	private Packing bestFitDecreasing(int[] order, int[] sorted, long[] remaining, int lowerBound) {
+		Search search = new Search(sorted, remaining, Math.max(sorted.length, 1));
+		
+		search.run(backtrackLimit, () -> false);
+		
+		return this.createPacking(order, search, lowerBound, false);
+	}
+	
+	/**
+	 * @return true once the time limit of the solve, counted from now, is reached.
+	 */
+	private BooleanSupplier deadline() {
+		if(maxMillis <= 0) {
+			return () -> false;
+		}
+		
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+		
+		return () -> System.nanoTime() - deadline >= 0;
+	}
+	
+	private Packing proven(Packing packing) {
+		return new Packing(packing.getLines(), packing.getLineOf(), packing.getPeriodOf(), packing.getLowerBound(), true);
+	}
+	
+	/**
+	 * Lower bound for the number of assembly lines.
+	 * It is the largest of: the total time by the length of a line, the steps that only fit in the longest period
+	 * and half of the Martello-Toth L2 bound with all bins as long as the longest period.
+	 * @param sorted the durations in descending order.
+	 * @return the minimum number of assembly lines needed.
+	 */
+	public int lowerBound(int[] sorted) {
+		int shortest = Math.min(capacities[MORNING], capacities[AFTERNOON]);
+		long total = 0;
+		int onlyLongest = 0;
+		
+		for (int duration : sorted) {
+			total += duration;
+			
+			if(duration > shortest) {
+				onlyLongest++;
+			}
+		}
+		
+		int byTotal = (int) ((total + capacities[MORNING] + capacities[AFTERNOON] - 1)
+				/ (capacities[MORNING] + capacities[AFTERNOON]));
+		int byL2 = (this.martelloTothL2(sorted, maxCapacity) + 1) / 2;
+		
+		return Math.max(Math.max(byTotal, onlyLongest), byL2);
+	}
+	
+	/**
+	 * Martello-Toth L2 lower bound for the number of bins of the same capacity.
+	 * @param sorted
+	 * @param capacity
+	 * @return the minimum number of bins.
+	 */
+	private int martelloTothL2(int[] sorted, int capacity) {
+		long[] count = new long[capacity + 2];
+		long[] sum = new long[capacity + 2];
+		
+		for (int duration : sorted) {
+			count[duration + 1]++;
+			sum[duration + 1] += duration;
+		}
+		
+		//Prefix sums: count[d] and sum[d] refer to the steps shorter than d.
+		for (int duration = 1; duration <= capacity + 1; duration++) {
+			count[duration] += count[duration - 1];
+			sum[duration] += sum[duration - 1];
+		}
+		
+		int half = capacity / 2;
+		long best = 0;
+		
+		for (int k = 0; k <= half; k++) {
+			long big = count[capacity + 1] - count[capacity - k + 1];
+			long medium = count[capacity - k + 1] - count[half + 1];
+			long mediumSum = sum[capacity - k + 1] - sum[half + 1];
+			long smallSum = sum[half + 1] - sum[k];
+			long free = medium * capacity - mediumSum;
+			long bound = big + medium + Math.max(0, (smallSum - free + capacity - 1) / capacity);
+			
+			best = Math.max(best, bound);
+		}
+		
+		return (int) best;
+	}
+	
+	/**
+	 * Assigns a bin to each step replaying the choices of the search, then removes the assembly lines left empty.
+	 */
+	private Packing createPacking(int[] order, Search search, int lowerBound, boolean optimal) {
+		int[] sorted = search.sorted;
+		int lines = search.lines;
+		//Linked lists of the bins of each period by remaining minutes.
+		int[][] heads = new int[2][maxCapacity + 1];
+		int[][] next = new int[2][lines];
+		int[] line = new int[sorted.length];
+		boolean[] used = new boolean[lines];
+		
+		for (int period = MORNING; period <= AFTERNOON; period++) {
+			Arrays.fill(heads[period], -1);
+			
+			for (int bin = lines - 1; bin >= 0; bin--) {
+				next[period][bin] = heads[period][capacities[period]];
+				heads[period][capacities[period]] = bin;
+			}
+		}
+		
+		for (int index = 0; index < sorted.length; index++) {
+			int period = search.periods[index];
+			int before = search.residuals[index];
+			int after = before - sorted[index];
+			int bin = heads[period][before];
+			
+			heads[period][before] = next[period][bin];
+			next[period][bin] = heads[period][after];
+			heads[period][after] = bin;
+			
+			line[index] = bin;
+			used[bin] = true;
+		}
+		
+		int[] renumber = new int[lines];
+		int count = 0;
+		
+		for (int bin = 0; bin < lines; bin++) {
+			renumber[bin] = used[bin] ? count++ : -1;
+		}
+		
+		int[] lineOf = new int[sorted.length];
+		int[] periodOf = new int[sorted.length];
+		
+		for (int index = 0; index < sorted.length; index++) {
+			lineOf[order[index]] = renumber[line[index]];
+			periodOf[order[index]] = search.periods[index];
+		}
+		
+		return new Packing(count, lineOf, periodOf, lowerBound, optimal);
+	}
+	
+	/**
+	 * Counting sort of the durations, they are bounded by the longest period.
+	 * @param durations
+	 * @return the indexes of the durations in descending order, stable for equal durations.
+	 */
+	private int[] sortDescending(int[] durations) {
+		int[] start = new int[maxCapacity + 2];
+		
+		for (int duration : durations) {
+			if(duration < 0 || duration > maxCapacity) {
+				throw new IllegalArgumentException("The duration " + duration + " does not fit in any period.");
+			}
+			
+			start[maxCapacity - duration + 1]++;
+		}
+		
+		for (int bucket = 1; bucket < start.length; bucket++) {
+			start[bucket] += start[bucket - 1];
+		}
+		
+		int[] order = new int[durations.length];
+		
+		for (int index = 0; index < durations.length; index++) {
+			order[start[maxCapacity - durations[index]]++] = index;
+		}
+		
+		return order;
+	}
+	
+	private int[] sorted(int[] durations, int[] order) {
+		int[] sorted = new int[order.length];
+		
+		for (int index = 0; index < order.length; index++) {
+			sorted[index] = durations[order[index]];
+		}
+		
+		return sorted;
+	}
+	
+	/**
+	 * @param sorted
+	 * @return for each step, the total in minutes of it and of the steps after it.
+	 */
+	private long[] remaining(int[] sorted) {
+		long[] remaining = new long[sorted.length + 1];
+		
+		for (int index = sorted.length - 1; index >= 0; index--) {
+			remaining[index] = remaining[index + 1] + sorted[index];
+		}
+		
+		return remaining;
+	}
+	
+	/**
+	 * State of the depth-first search that tries to pack the steps in a number of lines.
+	 * The first branch of each step is the best fit, so the first leaf is the best-fit decreasing packing.
+	 */
+	private final class Search {
+		
+		private final int[] sorted;
+		private final long[] remaining;
+		private final int lines;
+		private final int shortest;
+		/**
+		 * Number of bins of each period by remaining minutes.
+		 */
+		private final int[][] bins;
+		/**
+		 * The period chosen for each step.
+		 */
+		private final int[] periods;
+		/**
+		 * The remaining minutes of the chosen bin before each step.
+		 */
+		private final int[] residuals;
+		private final int[] cursor;
+		private long residual;
+		private long wasted;
+		private int depth;
+		
+		private Search(int[] sorted, long[] remaining, int lines) {
+			this.sorted = sorted;
+			this.remaining = remaining;
+			this.lines = lines;
+			this.shortest = sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+			this.bins = new int[2][maxCapacity + 1];
+			this.periods = new int[sorted.length];
+			this.residuals = new int[sorted.length];
+			this.cursor = new int[sorted.length];
+			this.residual = (long) lines * (capacities[MORNING] + capacities[AFTERNOON]);
+			
+			for (int period = MORNING; period <= AFTERNOON; period++) {
+				bins[period][capacities[period]] += lines;
+				
+				if(capacities[period] < shortest) {
+					wasted += (long) lines * capacities[period];
+				}
+			}
+		}
+		
+		/**
+		 * Copy of the search, used to explore a subtree on another worker.
+		 */
+		private Search(Search search) {
+			this.sorted = search.sorted;
+			this.remaining = search.remaining;
+			this.lines = search.lines;
+			this.shortest = search.shortest;
+			this.bins = new int[][] {search.bins[MORNING].clone(), search.bins[AFTERNOON].clone()};
+			this.periods = search.periods.clone();
+			this.residuals = search.residuals.clone();
+			this.cursor = search.cursor.clone();
+			this.residual = search.residual;
+			this.wasted = search.wasted;
+			this.depth = search.depth;
+		}
+		
+		/**
+		 * @return whether all the steps were packed.
+		 */
+		private boolean isComplete() {
+			return depth == sorted.length;
+		}
+		
+		/**
+		 * @return the bins where the current step can be placed, empty when the remaining steps do not fit in the free time.
+		 */
+		private int[] branches() {
+			int duration = sorted[depth];
+			int[] branches = new int[(maxCapacity + 1) << 1];
+			int count = 0;
+			
+			if(remaining[depth] <= residual - wasted) {
+				int position = this.nextBin(duration, duration << 1);
+				
+				while(position >= 0) {
+					branches[count++] = position;
+					
+					//A step that fills a bin exactly is not tried in any other bin.
+					if((position >>> 1) == duration) {
+						break;
+					}
+					
+					position = this.nextBin(duration, position + 1);
+				}
+			}
+			
+			return Arrays.copyOf(branches, count);
+		}
+		
+		/**
+		 * Depth-first search from the current step, never backtracking above it.
+		 * @param limit the maximum number of backtracks.
+		 * @param stop checked from time to time, ends the search when true.
+		 * @return true when packed, false when proven infeasible, null when the backtrack limit was reached or it was stopped.
+		 */
+		private Boolean run(long limit, BooleanSupplier stop) {
+			int base = depth;
+			long backtracks = 0;
+			
+			if(!this.isComplete()) {
+				cursor[base] = FRESH;
+			}
+			
+			while(true) {
+				if(this.isComplete()) {
+					BinPackingSolver.this.backtracks.add(backtracks);
+					
+					return Boolean.TRUE;
+				}
+				
+				int duration = sorted[depth];
+				int position = -1;
+				
+				if(cursor[depth] == FRESH) {
+					if(remaining[depth] <= residual - wasted) {
+						position = this.nextBin(duration, duration << 1);
+						
+						//A step that fills a bin exactly is not tried in any other bin.
+						cursor[depth] = position >= 0 && (position >>> 1) == duration ? EXHAUSTED : position + 1;
+					} else {
+						cursor[depth] = EXHAUSTED;
+					}
+				} else if(cursor[depth] != EXHAUSTED) {
+					position = this.nextBin(duration, cursor[depth]);
+					cursor[depth] = position + 1;
+				}
+				
+				if(position >= 0) {
+					this.place(position);
+				} else {
+					if(depth == base) {
+						BinPackingSolver.this.backtracks.add(backtracks);
+						
+						return Boolean.FALSE;
+					}
+					
+					if(++backtracks > limit
+							|| (backtracks % STOP_CHECK_INTERVAL == 0 && stop.getAsBoolean())) {
+						BinPackingSolver.this.backtracks.add(backtracks);
+						
+						return null;
+					}
+					
+					this.undo();
+				}
+			}
+		}
+		
+		/**
+		 * Places the current step in a bin of the position informed and moves to the next step.
+		 * @param position
+		 */
+		private void place(int position) {
+			int duration = sorted[depth];
+			int period = position & 1;
+			int before = position >>> 1;
+			int after = before - duration;
+			
+			bins[period][before]--;
+			bins[period][after]++;
+			residual -= duration;
+			wasted += after < shortest ? after : 0;
+			
+			periods[depth] = period;
+			residuals[depth] = before;
+			
+			depth++;
+			
+			if(depth < sorted.length) {
+				cursor[depth] = FRESH;
+			}
+		}
+		
+		/**
+		 * Moves back to the previous step and removes it from its bin.
+		 */
+		private void undo() {
+			depth--;
+			
+			int duration = sorted[depth];
+			int period = periods[depth];
+			int before = residuals[depth];
+			int after = before - duration;
+			
+			bins[period][after]--;
+			bins[period][before]++;
+			residual += duration;
+			wasted -= after < shortest ? after : 0;
+		}
+		
+		/**
+		 * The positions are ordered by remaining minutes and then by period, encoded as {@code minutes * 2 + period}.
+		 * @param duration
+		 * @param from the first position to be checked.
+		 * @return the next position with a bin where the step fits or -1 if there is none.
+		 */
+		private int nextBin(int duration, int from) {
+			int last = (maxCapacity << 1) + 1;
+			
+			for (int position = Math.max(from, duration << 1); position <= last; position++) {
+				if(bins[position & 1][position >>> 1] > 0) {
+					return position;
+				}
+			}
+			
+			return -1;
+		}
+	
+	}
+	
+	/**
+	 * Tries to pack the steps in one number of lines, splitting the search tree by the bins of the first steps.
+	 * It stops as soon as another number of lines, not greater than this one, is packed or the time limit is reached.
+	 */
+	@Getter
+	private final class ProbeTask extends RecursiveTask<Boolean> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final Search search;
+		private final AtomicInteger incumbent;
+		private final BooleanSupplier expired;
+		private final AtomicReference<Search> found;
+		/**
+		 * How many subtrees this task may still be split into.
+		 */
+		private final int budget;
+		/**
+		 * The backtracks of this task, divided among its subtrees like the budget.
+		 */
+		private final long limit;
+		
+		private ProbeTask(Search root, AtomicInteger incumbent, BooleanSupplier expired, int budget) {
+			this(root, incumbent, expired, new AtomicReference<>(), budget, backtrackLimit);
+		}
+		
+		private ProbeTask(Search search, AtomicInteger incumbent, BooleanSupplier expired, AtomicReference<Search> found,
+				int budget, long limit) {
+			this.search = search;
+			this.incumbent = incumbent;
+			this.expired = expired;
+			this.found = found;
+			this.budget = budget;
+			this.limit = limit;
+		}
+		
+		private boolean isStopped() {
+			return found.get() != null
+					|| incumbent.get() <= search.lines
+					|| expired.getAsBoolean();
+		}
+		
+		@Override
+		protected Boolean compute() {
+			int[] branches = new int[0];
+			
+			//Steps with a single branch are placed here, the subtrees are only created where the search really branches.
+			while(budget > 1
+					&& !search.isComplete()
+					&& (branches = search.branches()).length == 1) {
+				search.place(branches[0]);
+			}
+			
+			if(this.isStopped()) {
+				return null;
+			}
+			
+			if(search.isComplete()) {
+				return this.complete(search);
+			}
+			
+			if(budget <= 1) {
+				Boolean feasible = search.run(limit, this::isStopped);
+				
+				return Boolean.TRUE.equals(feasible) ? this.complete(search) : feasible;
+			}
+			
+			if(branches.length == 0) {
+				return Boolean.FALSE;
+			}
+			
+			List<ProbeTask> subtrees = new ArrayList<>();
+			
+			for (int position : branches) {
+				Search subtree = new Search(search);
+				
+				subtree.place(position);
+				subtrees.add(new ProbeTask(subtree, incumbent, expired, found, 
+						budget / branches.length, limit / branches.length));
+			}
+			
+			Boolean feasible = Boolean.FALSE;
+			
+			for (ProbeTask subtree : ForkJoinTask.invokeAll(subtrees)) {
+				Boolean result = subtree.join();
+				
+				if(Boolean.TRUE.equals(result)) {
+					return Boolean.TRUE;
+				}
+				
+				if(result == null) {
+					feasible = null;
+				}
+			}
+			
+			return feasible;
+		}
+		
+		private Boolean complete(Search packed) {
+			if(found.compareAndSet(null, packed)) {
+				incumbent.accumulateAndGet(packed.lines, Math::min);
+			}
+			
+			return Boolean.TRUE;
+		}
+	
+	}
+	
+	/**
+	 * Result of the solver: the assembly line and the period of each step, in the order of the durations informed.
+	 */
+	@Getter
+	@AllArgsConstructor
+	public static class Packing {
+		
+		private final int lines;
+		private final int[] lineOf;
+		private final int[] periodOf;
+		private final int lowerBound;
+		
+		/**
+		 * Whether every smaller number of assembly lines was proven infeasible.
+		 */
+		private final boolean optimal;
+	
+	}
+
+}
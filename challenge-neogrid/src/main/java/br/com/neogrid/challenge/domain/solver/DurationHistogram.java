@@ -0,0 +1,190 @@
+package br.com.neogrid.challenge.domain.solver;
+
+import java.util.Arrays;
+
+/**
+ * Steps of the production process collapsed into the number of steps of each distinct duration.
+ * The periods are filled as a bounded knapsack on the counts, so the cost depends on the number
+ * of distinct durations and not on the number of steps. The steps are only assigned back to the
+ * filled periods when they are taken.
+ * @author Divino Martins
+ *
+ */
+public class DurationHistogram {
+	
+	/**
+	 * Distinct durations in minutes, in descending order.
+	 */
+	private final int[] values;
+	
+	/**
+	 * Number of steps not taken yet of each distinct duration.
+	 */
+	private final int[] counts;
+	
+	/**
+	 * Indexes of the steps grouped by duration in the order of the values.
+	 */
+	private final int[] steps;
+	
+	/**
+	 * Position in steps of the next step to be taken of each distinct duration.
+	 */
+	private final int[] next;
+	
+	/**
+	 * @param durations the duration in minutes of each step.
+	 * @param order the indexes of the steps in descending order of duration.
+	 */
+	public DurationHistogram(int[] durations, int[] order) {
+		int distinct = 0;
+		
+		for (int index = 0; index < order.length; index++) {
+			if(index == 0
+					|| durations[order[index]] != durations[order[index - 1]]) {
+				distinct++;
+			}
+		}
+		
+		this.values = new int[distinct];
+		this.counts = new int[distinct];
+		this.next = new int[distinct];
+		this.steps = order;
+		
+		int value = -1;
+		
+		for (int index = 0; index < order.length; index++) {
+			if(index == 0
+					|| durations[order[index]] != durations[order[index - 1]]) {
+				value++;
+				values[value] = durations[order[index]];
+				next[value] = index;
+			}
+			
+			counts[value]++;
+		}
+	}
+	
+	public int distinct() {
+		return values.length;
+	}
+	
+	public int getValue(int value) {
+		return values[value];
+	}
+	
+	public int getCount(int value) {
+		return counts[value];
+	}
+	
+	/**
+	 * @return whether there are steps not taken yet.
+	 */
+	public boolean hasSteps() {
+		for (int count : counts) {
+			if(count > 0) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Choose how many steps of each duration gives the longest total that still fits in the period.
+	 * The steps are not taken.
+	 * @param capacity the length of the period in minutes.
+	 * @return the number of steps chosen of each distinct duration, never null.
+	 */
+	public int[] fill(int capacity) {
+		int[] chosen = new int[values.length];
+		
+		if(capacity < 0) {
+			return chosen;
+		}
+		
+		//The distinct duration that reached each total for the first time and how many of it were used.
+		int[] parent = new int[capacity + 1];
+		int[] used = new int[capacity + 1];
+		
+		Arrays.fill(parent, -1);
+		parent[0] = values.length;
+		
+		for (int value = 0; value < values.length; value++) {
+			int duration = values[value];
+			
+			if(duration == 0) {
+				//Steps without duration fit in any period.
+				chosen[value] = counts[value];
+				continue;
+			}
+			
+			if(counts[value] == 0
+					|| duration > capacity
+					|| parent[capacity] != -1) {
+				continue;
+			}
+			
+			for (int total = duration; total <= capacity; total++) {
+				int previous = total - duration;
+				
+				if(parent[total] == -1
+						&& parent[previous] != -1) {
+					int times = parent[previous] == value ? used[previous] + 1 : 1;
+					
+					if(times <= counts[value]) {
+						parent[total] = value;
+						used[total] = times;
+					}
+				}
+			}
+		}
+		
+		int total = capacity;
+		
+		while(parent[total] == -1) {
+			total--;
+		}
+		
+		while(total > 0) {
+			int value = parent[total];
+			
+			chosen[value]++;
+			total -= values[value];
+		}
+		
+		return chosen;
+	}
+	
+	/**
+	 * @param chosen the number of steps of each distinct duration.
+	 * @return how many times the same choice can still be taken, zero when nothing was chosen.
+	 */
+	public int repetitions(int[] chosen) {
+		int repetitions = Integer.MAX_VALUE;
+		
+		for (int value = 0; value < values.length; value++) {
+			if(chosen[value] > 0) {
+				repetitions = Math.min(repetitions, counts[value] / chosen[value]);
+			}
+		}
+		
+		return repetitions == Integer.MAX_VALUE ? 0 : repetitions;
+	}
+	
+	/**
+	 * Takes the next step of the distinct duration.
+	 * @param value
+	 * @return the index of the step taken.
+	 */
+	public int take(int value) {
+		if(counts[value] == 0) {
+			throw new IllegalStateException("There are no steps left with " + values[value] + " minutes.");
+		}
+		
+		counts[value]--;
+		
+		return steps[next[value]++];
+	}
+
+}
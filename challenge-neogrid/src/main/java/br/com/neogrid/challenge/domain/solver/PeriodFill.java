@@ -0,0 +1,163 @@
+package br.com.neogrid.challenge.domain.solver;
+
+import java.util.Arrays;
+
+/**
+ * Dynamic-programming engine that fills a period with the steps of the production process.
+ * It keeps a bitset with the totals in minutes that can be reached with the steps already seen
+ * and, for each total, the step that reached it first, so the chosen steps can be rebuilt.
+ * The cost is O(n * capacity / 64).
+ * @author Divino Martins
+ *
+ */
+public final class PeriodFill {
+	
+	private static final int[] EMPTY = new int[0];
+	
+	private PeriodFill() {
+	}
+	
+	/**
+	 * Choose the steps with the longest total duration that still fits in the period.
+	 * @param durations the duration in minutes of each step.
+	 * @param capacity the length of the period in minutes.
+	 * @return the indexes of the chosen steps in ascending order, never null.
+	 */
+	public static int[] fill(int[] durations, int capacity) {
+		return durations == null ? EMPTY : fill(durations, durations.length, capacity);
+	}
+	
+	/**
+	 * Choose the steps with the longest total duration that still fits in the period,
+	 * considering only the first {@code length} durations.
+	 * @param durations the duration in minutes of each step.
+	 * @param length the number of durations to be considered.
+	 * @param capacity the length of the period in minutes.
+	 * @return the indexes of the chosen steps in ascending order, never null.
+	 */
+	public static int[] fill(int[] durations, int length, int capacity) {
+		if(durations == null
+				|| length <= 0
+				|| capacity < 0) {
+			return EMPTY;
+		}
+		
+		int words = (capacity >>> 6) + 1;
+		long lastWordMask = -1L >>> (63 - (capacity & 63));
+		long[] reachable = new long[words];
+		long[] shifted = new long[words];
+		//The step that reached each total for the first time, used to rebuild the combination.
+		int[] parent = new int[capacity + 1];
+		int[] chosen = new int[length];
+		int count = 0;
+		
+		Arrays.fill(parent, -1);
+		reachable[0] = 1L;
+		
+		for (int index = 0; index < length; index++) {
+			int duration = durations[index];
+			
+			if(duration == 0) {
+				//Steps without duration fit in any period.
+				chosen[count++] = index;
+				continue;
+			}
+			
+			if(duration < 0
+					|| duration > capacity
+					|| isReachable(reachable, capacity)) {
+				continue;
+			}
+			
+			shiftLeft(reachable, shifted, duration);
+			shifted[words - 1] &= lastWordMask;
+			
+			for (int word = 0; word < words; word++) {
+				long fresh = shifted[word] & ~reachable[word];
+				
+				if(fresh != 0) {
+					reachable[word] |= fresh;
+					
+					do {
+						parent[(word << 6) + Long.numberOfTrailingZeros(fresh)] = index;
+						fresh &= fresh - 1;
+					} while(fresh != 0);
+				}
+			}
+		}
+		
+		int total = highestReachable(reachable);
+		
+		while(total > 0) {
+			int index = parent[total];
+			
+			chosen[count++] = index;
+			total -= durations[index];
+		}
+		
+		int[] indexes = Arrays.copyOf(chosen, count);
+		Arrays.sort(indexes);
+		
+		return indexes;
+	}
+	
+	/**
+	 * @param durations
+	 * @param indexes
+	 * @return the total in minutes of the steps of the indexes.
+	 */
+	public static int total(int[] durations, int[] indexes) {
+		int total = 0;
+		
+		for (int index : indexes) {
+			total += durations[index];
+		}
+		
+		return total;
+	}
+	
+	private static boolean isReachable(long[] reachable, int total) {
+		return (reachable[total >>> 6] & (1L << (total & 63))) != 0;
+	}
+	
+	/**
+	 * @param reachable
+	 * @return the longest total in minutes that can be reached.
+	 */
+	private static int highestReachable(long[] reachable) {
+		for (int word = reachable.length - 1; word >= 0; word--) {
+			if(reachable[word] != 0) {
+				return (word << 6) + 63 - Long.numberOfLeadingZeros(reachable[word]);
+			}
+		}
+		
+		return 0;
+	}
+	
+	/**
+	 * Writes to target the bitset source shifted by the number of bits informed.
+	 * @param source
+	 * @param target
+	 * @param bits
+	 */
+	private static void shiftLeft(long[] source, long[] target, int bits) {
+		int wordShift = bits >>> 6;
+		int bitShift = bits & 63;
+		
+		for (int word = source.length - 1; word >= 0; word--) {
+			int from = word - wordShift;
+			long value = 0;
+			
+			if(from >= 0) {
+				value = source[from] << bitShift;
+				
+				if(bitShift != 0 && from > 0) {
+					value |= source[from - 1] >>> (64 - bitShift);
+				}
+			}
+			
+			target[word] = value;
+		}
+	}
+	
+}
@@ -0,0 +1,178 @@
+package br.com.neogrid.challenge.domain.solver;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Steps of the production process in struct-of-arrays form, used by the solvers in place of the Step objects.
+ * The step i lasts durations[i] minutes and, once placed, starts at the minute of the day startMinuteOfDay[i]
+ * on the assembly line lineIndex[i]. The assembly lines for the output are only built from it at the end.
+ * @author Divino Martins
+ *
+ */
+@Getter
+public class StepPlan {
+	
+	public static final int NOT_PLACED = -1;
+	
+	private static final int MINUTES_BY_HOUR = 60;
+	private static final int MINUTES_BY_DAY = 24 * MINUTES_BY_HOUR;
+	
+	/**
+	 * Longer durations can not be placed in any period, then the order falls back to a comparison sort.
+	 */
+	private static final int MAX_COUNTING_SORT_DURATION = MINUTES_BY_DAY;
+	
+	private final String[] titles;
+	private final int[] durations;
+	private final int[] startMinuteOfDay;
+	private final int[] lineIndex;
+	
+	/**
+	 * Number of assembly lines of the plan.
+	 */
+	@Setter
+	private int lines;
+	
+	/**
+	 * @param titles the title of each step.
+	 * @param durations the duration in minutes of each step.
+	 */
+	public StepPlan(List<String> titles, int[] durations) {
+		this.titles = titles.toArray(new String[0]);
+		this.durations = durations;
+		this.startMinuteOfDay = new int[durations.length];
+		this.lineIndex = new int[durations.length];
+		
+		Arrays.fill(lineIndex, NOT_PLACED);
+	}
+	
+	public int size() {
+		return durations.length;
+	}
+	
+	/**
+	 * Places the step on the assembly line starting at the minute of the day informed.
+	 * @param step
+	 * @param line
+	 * @param startMinuteOfDay
+	 */
+	public void place(int step, int line, int startMinuteOfDay) {
+		this.lineIndex[step] = line;
+		this.startMinuteOfDay[step] = startMinuteOfDay;
+	}
+	
+	/**
+	 * @return whether all the steps were placed on some assembly line.
+	 */
+	public boolean isComplete() {
+		for (int line : lineIndex) {
+			if(line == NOT_PLACED) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * @return the total in minutes to perform all steps.
+	 */
+	public long getTotalMinutes() {
+		long total = 0;
+		
+		for (int duration : durations) {
+			total += duration;
+		}
+		
+		return total;
+	}
+	
+	/**
+	 * Orders with a counting sort, the durations are bounded by the length of the periods.
+	 * @return the indexes of the steps in descending order of duration, stable for equal durations.
+	 */
+	public int[] orderByDurationDescending() {
+		int max = 0;
+		
+		for (int duration : durations) {
+			max = Math.max(max, duration);
+		}
+		
+		if(max > MAX_COUNTING_SORT_DURATION) {
+			long[] keys = new long[durations.length];
+			
+			for (int step = 0; step < durations.length; step++) {
+				keys[step] = ((long) (Integer.MAX_VALUE - durations[step]) << 32) | step;
+			}
+			
+			return this.indexes(keys);
+		}
+		
+		//The position of the first step of each duration, the longest durations first.
+		int[] next = new int[max + 2];
+		int[] order = new int[durations.length];
+		
+		for (int duration : durations) {
+			next[max - duration + 1]++;
+		}
+		
+		for (int position = 1; position < next.length; position++) {
+			next[position] += next[position - 1];
+		}
+		
+		for (int step = 0; step < durations.length; step++) {
+			order[next[max - durations[step]]++] = step;
+		}
+		
+		return order;
+	}
+	
+	/**
+	 * @return the indexes of the placed steps ordered by assembly line and then by start time.
+	 */
+	public int[] orderByLineAndStart() {
+		long[] keys = new long[durations.length];
+		int count = 0;
+		
+		for (int step = 0; step < durations.length; step++) {
+			if(lineIndex[step] != NOT_PLACED) {
+				long minute = (long) lineIndex[step] * MINUTES_BY_DAY + startMinuteOfDay[step];
+				
+				keys[count++] = (minute << 32) | step;
+			}
+		}
+		
+		return this.indexes(Arrays.copyOf(keys, count));
+	}
+	
+	/**
+	 * Sorts the keys, which carry the index of the step in the lower 32 bits.
+	 * @param keys
+	 * @return the indexes in the order of the keys.
+	 */
+	private int[] indexes(long[] keys) {
+		int[] indexes = new int[keys.length];
+		
+		Arrays.sort(keys);
+		
+		for (int index = 0; index < keys.length; index++) {
+			indexes[index] = (int) keys[index];
+		}
+		
+		return indexes;
+	}
+	
+	public static int toMinuteOfDay(LocalTime time) {
+		return time.getHour() * MINUTES_BY_HOUR + time.getMinute();
+	}
+	
+	public static LocalTime toLocalTime(int minuteOfDay) {
+		return LocalTime.of(minuteOfDay / MINUTES_BY_HOUR, minuteOfDay % MINUTES_BY_HOUR);
+	}
+
+}
@@ -0,0 +1,33 @@
+package br.com.neogrid.challenge.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Writing of the output file with the assembly lines.
+ * @author Divino Martins
+ *
+ */
+@Name("br.com.neogrid.challenge.OutputWrite")
+@Label("Output Write")
+@Category({"Challenge", "Output"})
+@Description("Writing of the output file with the assembly lines")
+@StackTrace(false)
+public class OutputWriteEvent extends jdk.jfr.Event {
+	
+	@Label("Name")
+	public String name;
+	
+	@Label("Format")
+	public String format;
+	
+	@Label("Assembly Lines")
+	public int assemblyLines;
+	
+	@Label("Steps")
+	public int steps;
+
+}
@@ -0,0 +1,38 @@
+package br.com.neogrid.challenge.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Parsing of one chunk of the titles, of a file mapped in memory or of a list.
+ * @author Divino Martins
+ *
+ */
+@Name("br.com.neogrid.challenge.ParseChunk")
+@Label("Parse Chunk")
+@Category({"Challenge", "Parser"})
+@Description("Parsing of one chunk of the titles")
+@StackTrace(false)
+public class ParseChunkEvent extends jdk.jfr.Event {
+	
+	@Label("From")
+	@Description("Offset of the first byte of the file, or index of the first title of the list")
+	public long from;
+	
+	@Label("To")
+	@Description("Offset after the last byte of the file, or index after the last title of the list")
+	public long to;
+	
+	@Label("Bytes")
+	@DataAmount
+	@Description("Size of the chunk of the file, zero for a list")
+	public long bytes;
+	
+	@Label("Titles")
+	public int titles;
+
+}
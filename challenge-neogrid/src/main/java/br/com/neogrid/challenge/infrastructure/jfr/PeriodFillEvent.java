@@ -0,0 +1,45 @@
+package br.com.neogrid.challenge.infrastructure.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Fill of one period of an assembly line with the combination of steps of the longest total.
+ * @author Divino Martins
+ *
+ */
+@Name("br.com.neogrid.challenge.PeriodFill")
+@Label("Period Fill")
+@Category({"Challenge", "Solver"})
+@Description("Fill of one period of an assembly line")
+@StackTrace(false)
+public class PeriodFillEvent extends jdk.jfr.Event {
+	
+	public static final String MORNING = "morning";
+	public static final String AFTERNOON = "afternoon";
+	
+	@Label("Assembly Line")
+	@Description("Number of the assembly line, zero when the period is filled alone")
+	public int line;
+	
+	@Label("Period")
+	public String period;
+	
+	@Label("Candidates")
+	@Description("Steps not placed yet that could be chosen")
+	public int candidates;
+	
+	@Label("Capacity")
+	@Description("Length of the period in minutes")
+	public int capacity;
+	
+	@Label("Chosen Steps")
+	public int chosenSteps;
+	
+	@Label("Chosen Minutes")
+	public int chosenMinutes;
+
+}
@@ -0,0 +1,478 @@
+package br.com.neogrid.challenge.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import br.com.neogrid.challenge.core.metrics.PlanMetrics;
+import br.com.neogrid.challenge.core.storage.StorageProperties;
+import br.com.neogrid.challenge.domain.service.FileStorageService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation that writes the files on the local machine in background, after the response is returned.
+ * The bytes written to the channel of a file are handed in chunks, through a bounded queue, to a single thread that writes
+ * them to a temporary file. Once the channel is committed and closed, the file is completed in batches: synchronized with
+ * the disk when the durability asks for it and renamed to its name. A channel closed without commit deletes the temporary file.
+ * The input files are read by {@link LocalFileStorageService}.
+ * @author Divino Martins
+ *
+ */
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "challenge.storage.write-behind", name = "enabled", havingValue = "true")
+public class AsyncFileStorageService implements FileStorageService {
+	
+	private static final long POLL_MILLIS = 100;
+	
+	private static final int CHUNK_SIZE = 1 << 16;
+	
+	private static final String TEMPORARY_SUFFIX = ".part";
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	@Autowired
+	private LocalFileStorageService localFileStorageService;
+	
+	@Autowired
+	private PlanMetrics planMetrics;
+	
+	private BlockingQueue<Operation> queue;
+	
+	private Thread writer;
+	
+	private volatile boolean running;
+	
+	/**
+	 * Set when the writer thread exits, the operations queued after that are failed by whoever finds them.
+	 */
+	private volatile boolean closed;
+	
+	@PostConstruct
+	public void start() {
+		queue = new ArrayBlockingQueue<>(storageProperties.getWriteBehind().getQueueCapacity());
+		running = true;
+		writer = new Thread(this::writeBehind, "write-behind");
+		writer.setDaemon(true);
+		writer.start();
+	}
+	
+	/**
+	 * Stops accepting files and waits for the ones in the queue to be written.
+	 * @throws InterruptedException
+	 */
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		running = false;
+		writer.join();
+	}
+	
+	@Override
+	public StreamStorage read(String name) {
+		return localFileStorageService.read(name);
+	}
+	
+	@Override
+	public List<String> list(String glob) {
+		return localFileStorageService.list(glob);
+	}
+	
+	@Override
+	public void save(StreamStorage file) {
+		this.saveAsync(file);
+	}
+	
+	/**
+	 * Queues the file to be written, the stream of the file is read by the writer thread.
+	 * The stream of the file is then set to read it back once written.
+	 */
+	@Override
+	public CompletableFuture<StreamStorage> saveAsync(StreamStorage file) {
+		InputStream stream = file.getStream();
+		CompletableFuture<StreamStorage> written = this.prepare(file);
+		
+		this.enqueue(new Operation(new PendingWrite(file, stream), Operation.Type.STREAM, null));
+		
+		return written;
+	}
+	
+	/**
+	 * The channel only copies the bytes to chunks, the chunks are written to the temporary file by the writer thread.
+	 */
+	@Override
+	public OutputChannel create(StreamStorage file) {
+		this.prepare(file);
+		
+		return new PendingChannel(new PendingWrite(file, null));
+	}
+	
+	private CompletableFuture<StreamStorage> prepare(StreamStorage file) {
+		Path path = storageProperties.getLocal().getDirectoryOutput().resolve(Path.of(file.getName()));
+		CompletableFuture<StreamStorage> written = new CompletableFuture<>();
+		
+		file.setPath(path.toString());
+		file.setStream(new LazyFileInputStream(path, written, storageProperties.getWriteBehind().getMaxWait()));
+		file.setWritten(written);
+		
+		return written;
+	}
+	
+	private static Path getTemporaryPath(StreamStorage file) {
+		return Path.of(file.getPath() + TEMPORARY_SUFFIX);
+	}
+	
+	/**
+	 * Queues the operation, waiting while the queue is full.
+	 * When the writer exits meanwhile, the file of the operation and the ones still in the queue are failed here.
+	 */
+	private void enqueue(Operation operation) {
+		if(!running
+				|| closed) {
+			operation.pending.fail(new StorageException("The storage is shut down, the file was not saved."));
+			throw new StorageException("The storage is shut down, the file was not saved.");
+		}
+		
+		try {
+			while(!queue.offer(operation, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+				if(closed) {
+					operation.pending.fail(new StorageException("The storage is shut down, the file was not saved."));
+					throw new StorageException("The storage is shut down, the file was not saved.");
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			operation.pending.fail(ex);
+			throw new StorageException("Could not save file.", ex);
+		}
+		
+		if(closed) {
+			this.failQueued();
+		}
+	}
+	
+	private void writeBehind() {
+		List<Operation> batch = new ArrayList<>();
+		
+		try {
+			while(running || !queue.isEmpty()) {
+				batch.clear();
+				
+				Operation first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				
+				if(first != null) {
+					batch.add(first);
+					queue.drainTo(batch, storageProperties.getWriteBehind().getMaxBatch() - 1);
+					
+					planMetrics.record(PlanMetrics.STAGE_SAVE, () -> this.write(batch));
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException | Error ex) {
+			log.error("The write-behind thread stopped.", ex);
+			throw ex;
+		} finally {
+			closed = true;
+			
+			for (Operation operation : batch) {
+				operation.pending.fail(new StorageException("The storage stopped before the file was written."));
+			}
+			
+			this.failQueued();
+		}
+	}
+	
+	private void failQueued() {
+		List<Operation> operations = new ArrayList<>();
+		
+		queue.drainTo(operations);
+		
+		for (Operation operation : operations) {
+			operation.pending.fail(new StorageException("The storage stopped before the file was written."));
+		}
+	}
+	
+	/**
+	 * Writes the chunks and the streams of the batch, and only then synchronizes the completed files with the disk,
+	 * renames them to their names and completes their futures.
+	 * @param batch
+	 */
+	private void write(List<Operation> batch) {
+		List<PendingWrite> completed = new ArrayList<>();
+		
+		for (Operation operation : batch) {
+			switch (operation.type) {
+			case CHUNK:
+				operation.pending.write(operation.chunk);
+				break;
+			case STREAM:
+				operation.pending.transfer();
+				completed.add(operation.pending);
+				break;
+			case COMMIT:
+				completed.add(operation.pending);
+				break;
+			default:
+				operation.pending.fail(new StorageException("The file was not completed, it was discarded."));
+			}
+		}
+		
+		boolean fsync = storageProperties.getWriteBehind().getDurability() == StorageProperties.Durability.FSYNC;
+		
+		for (PendingWrite pending : completed) {
+			pending.complete(fsync);
+		}
+	}
+	
+	/**
+	 * Operation on a file, queued in the order it was made.
+	 */
+	private static class Operation {
+		
+		private enum Type {
+			/**
+			 * Writes the chunk to the temporary file.
+			 */
+			CHUNK,
+			/**
+			 * Writes the stream of the file and completes it.
+			 */
+			STREAM,
+			/**
+			 * Completes the file, all its chunks were queued.
+			 */
+			COMMIT,
+			/**
+			 * Deletes the temporary file and fails the file.
+			 */
+			ABORT
+		}
+		
+		private final PendingWrite pending;
+		private final Type type;
+		private final ByteBuffer chunk;
+		
+		private Operation(PendingWrite pending, Type type, ByteBuffer chunk) {
+			this.pending = pending;
+			this.type = type;
+			this.chunk = chunk;
+		}
+	}
+	
+	/**
+	 * File being written, its temporary file is only touched by the writer thread,
+	 * or by whoever fails it once the writer is gone.
+	 */
+	private static class PendingWrite {
+		
+		private final StreamStorage file;
+		private final InputStream stream;
+		private FileChannel channel;
+		
+		/**
+		 * @param file
+		 * @param stream the content of the file when it is saved, null when it is written through a channel.
+		 */
+		private PendingWrite(StreamStorage file, InputStream stream) {
+			this.file = file;
+			this.stream = stream;
+		}
+		
+		private synchronized void write(ByteBuffer chunk) {
+			if(file.getWritten().isDone()) {
+				return;
+			}
+			
+			try {
+				while(chunk.hasRemaining()) {
+					this.open().write(chunk);
+				}
+			} catch (Exception ex) {
+				this.fail(ex);
+			}
+		}
+		
+		private synchronized void transfer() {
+			try (InputStream input = stream) {
+				input.transferTo(Channels.newOutputStream(this.open()));
+			} catch (Exception ex) {
+				this.fail(ex);
+			}
+		}
+		
+		/**
+		 * Synchronizes the temporary file with the disk when asked, renames it to the name of the file and completes the future.
+		 */
+		private synchronized void complete(boolean fsync) {
+			if(file.getWritten().isDone()) {
+				return;
+			}
+			
+			try (FileChannel written = this.open()) {
+				if(fsync) {
+					written.force(true);
+				}
+			} catch (Exception ex) {
+				this.fail(ex);
+				return;
+			}
+			
+			channel = null;
+			
+			try {
+				Files.move(getTemporaryPath(file), Path.of(file.getPath()),
+						StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (Exception ex) {
+				this.fail(ex);
+				return;
+			}
+			
+			file.getWritten().complete(file);
+		}
+		
+		private FileChannel open() throws IOException {
+			if(channel == null) {
+				channel = FileChannel.open(
+						getTemporaryPath(file),
+						StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING,
+						StandardOpenOption.WRITE
+					);
+			}
+			
+			return channel;
+		}
+		
+		/**
+		 * Closes and deletes the temporary file and completes the future with the error, once.
+		 */
+		private synchronized void fail(Exception ex) {
+			if(file.getWritten().isDone()) {
+				return;
+			}
+			
+			if(channel != null) {
+				try {
+					channel.close();
+				} catch (IOException closing) {
+					ex.addSuppressed(closing);
+				}
+				
+				channel = null;
+			}
+			
+			try {
+				Files.deleteIfExists(getTemporaryPath(file));
+			} catch (IOException deleting) {
+				ex.addSuppressed(deleting);
+			}
+			
+			file.getWritten().completeExceptionally(ex instanceof StorageException
+					? ex
+					: new StorageException("Could not save file.", ex));
+		}
+	}
+	
+	/**
+	 * Channel that copies the bytes to chunks and queues them to the writer thread, blocking while the queue is full.
+	 * Closing it queues the completion of the file when it was committed, or its removal otherwise.
+	 */
+	private class PendingChannel implements OutputChannel {
+		
+		private final PendingWrite pending;
+		private ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+		private boolean open = true;
+		private boolean committed;
+		
+		private PendingChannel(PendingWrite pending) {
+			this.pending = pending;
+		}
+		
+		@Override
+		public int write(ByteBuffer source) throws IOException {
+			if(!open) {
+				throw new ClosedChannelException();
+			}
+			
+			int count = source.remaining();
+			
+			while(source.hasRemaining()) {
+				if(!chunk.hasRemaining()) {
+					this.queueChunk();
+				}
+				
+				ByteBuffer part = source.duplicate();
+				
+				part.limit(part.position() + Math.min(chunk.remaining(), source.remaining()));
+				chunk.put(part);
+				source.position(part.position());
+			}
+			
+			return count;
+		}
+		
+		private void queueChunk() {
+			chunk.flip();
+			enqueue(new Operation(pending, Operation.Type.CHUNK, chunk));
+			chunk = ByteBuffer.allocate(CHUNK_SIZE);
+		}
+		
+		@Override
+		public boolean isOpen() {
+			return open;
+		}
+		
+		@Override
+		public void commit() {
+			committed = true;
+		}
+		
+		@Override
+		public void close() {
+			if(!open) {
+				return;
+			}
+			
+			open = false;
+			
+			if(committed) {
+				if(chunk.position() > 0) {
+					this.queueChunk();
+				}
+				
+				enqueue(new Operation(pending, Operation.Type.COMMIT, null));
+			} else {
+				try {
+					//The chunks already queued are written before the temporary file is deleted.
+					enqueue(new Operation(pending, Operation.Type.ABORT, null));
+				} catch (StorageException ex) {
+					//The storage is shut down, the file was failed when it was not queued.
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+package br.com.neogrid.challenge.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Stream of a file that is only opened when it is read, so the files written are not kept open.
+ * When the file is written in background, it is only opened after the write is complete, waiting at most the time informed.
+ * @author Divino Martins
+ *
+ */
+public class LazyFileInputStream extends InputStream {
+	
+	private final Path path;
+	
+	private final CompletableFuture<?> written;
+	
+	private final Duration maxWait;
+	
+	private InputStream stream;
+	
+	public LazyFileInputStream(Path path) {
+		this(path, CompletableFuture.completedFuture(null), Duration.ZERO);
+	}
+	
+	public LazyFileInputStream(Path path, CompletableFuture<?> written, Duration maxWait) {
+		this.path = path;
+		this.written = written;
+		this.maxWait = maxWait;
+	}
+	
+	private InputStream open() throws IOException {
+		if(stream == null) {
+			try {
+				written.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+			} catch (ExecutionException ex) {
+				throw new IOException("The file could not be written.", ex.getCause());
+			} catch (TimeoutException ex) {
+				throw new IOException("The file was not written within " + maxWait + ".", ex);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting for the file to be written.", ex);
+			}
+			
+			stream = Files.newInputStream(path);
+		}
+		
+		return stream;
+	}
+	
+	@Override
+	public int read() throws IOException {
+		return this.open().read();
+	}
+	
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		return this.open().read(buffer, offset, length);
+	}
+	
+	@Override
+	public long skip(long count) throws IOException {
+		return this.open().skip(count);
+	}
+	
+	@Override
+	public int available() throws IOException {
+		return this.open().available();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		if(stream != null) {
+			stream.close();
+		}
+	}
+
+}
@@ -1,14 +1,24 @@
 package br.com.neogrid.challenge.infrastructure.storage;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileCopyUtils;
 
+import br.com.neogrid.challenge.core.metrics.PlanMetrics;
 import br.com.neogrid.challenge.core.storage.StorageProperties;
 import br.com.neogrid.challenge.domain.service.FileStorageService;
+import io.micrometer.core.instrument.Timer;
 
 /**
  * Implementation for recording files on the local machine.
@@ -21,6 +31,9 @@ public class LocalFileStorageService implements FileStorageService {
 	@Autowired
 	private StorageProperties storageProperties;
 
+	@Autowired
+	private PlanMetrics planMetrics;
+	
 	@Override
 	public StreamStorage read(String name) {
 		try {
@@ -42,8 +55,32 @@ public class LocalFileStorageService implements FileStorageService {
 		}
 	}
 
+	@Override
+	public List<String> list(String glob) {
+		List<String> names = new ArrayList<>();
+		
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(
+				storageProperties.getLocal().getDirectoryInput(), glob == null ? "*" : glob)) {
+			for (Path file : files) {
+				if(Files.isRegularFile(file)) {
+					names.add(file.getFileName().toString());
+				}
+			}
+		} catch (Exception ex) {
+			throw new StorageException("The input files could not be listed.", ex);
+		}
+		
+		Collections.sort(names);
+		
+		return names;
+	}
+	
 	@Override
 	public void save(StreamStorage file) {
+		planMetrics.record(PlanMetrics.STAGE_SAVE, () -> this.write(file));
+	}
+	
+	private void write(StreamStorage file) {
 		try {
 			Path path = storageProperties.getLocal().getDirectoryOutput().resolve(Path.of(file.getName()));
 			
@@ -56,5 +93,76 @@ public class LocalFileStorageService implements FileStorageService {
 		}		
 	}
 	
+	/**
+	 * The channel is timed as a save, from its creation until it is closed.
+	 */
+	@Override
+	public OutputChannel create(StreamStorage file) {
+		Timer.Sample sample = planMetrics.start();
+		
+		try {
+			Path path = storageProperties.getLocal().getDirectoryOutput().resolve(Path.of(file.getName()));
+			
+			file.setPath(path.toString());
+			file.setStream(new LazyFileInputStream(path));
+			
+			return new TimedChannel(
+					path,
+					FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), 
+					sample
+				);
+		} catch (Exception e) {
+			planMetrics.stop(PlanMetrics.STAGE_SAVE, sample);
+			
+			throw new StorageException("Could not create file.", e);
+		}
+	}
 	
+	/**
+	 * Channel that deletes the file when it is closed without being committed, and stops the timing of the save.
+	 */
+	private class TimedChannel implements OutputChannel {
+		
+		private final Path path;
+		private final FileChannel channel;
+		private Timer.Sample sample;
+		private boolean committed;
+		
+		private TimedChannel(Path path, FileChannel channel, Timer.Sample sample) {
+			this.path = path;
+			this.channel = channel;
+			this.sample = sample;
+		}
+		
+		@Override
+		public void commit() {
+			committed = true;
+		}
+		
+		@Override
+		public int write(ByteBuffer source) throws IOException {
+			return channel.write(source);
+		}
+		
+		@Override
+		public boolean isOpen() {
+			return channel.isOpen();
+		}
+		
+		@Override
+		public void close() throws IOException {
+			try {
+				channel.close();
+			} finally {
+				if(!committed) {
+					Files.deleteIfExists(path);
+				}
+				
+				if(sample != null) {
+					planMetrics.stop(PlanMetrics.STAGE_SAVE, sample);
+					sample = null;
+				}
+			}
+		}
+	}
 }
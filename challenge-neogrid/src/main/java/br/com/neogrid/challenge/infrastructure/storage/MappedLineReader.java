@@ -0,0 +1,173 @@
+package br.com.neogrid.challenge.infrastructure.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Reads the lines of a file mapped in memory, decoding each line straight from the mapped buffer.
+ * The file is mapped in windows, so files longer than the limit of a single mapping can also be read.
+ * @author Divino Martins
+ *
+ */
+public final class MappedLineReader {
+	
+	private static final int WINDOW = 1 << 30;
+	
+	private MappedLineReader() {
+	}
+	
+	/**
+	 * Reads the lines of the file, including the blank ones, in the default charset.
+	 * @param path
+	 * @param consumer receives each line without the line break and its number, starting at 1.
+	 */
+	public static void forEachLine(Path path, ObjIntConsumer<String> consumer) {
+		forEachLine(path, WINDOW, consumer);
+	}
+	
+	/**
+	 * @param path
+	 * @param window the maximum number of bytes mapped at once, a line can not be longer than it.
+	 * @param consumer receives each line without the line break and its number, starting at 1.
+	 */
+	static void forEachLine(Path path, int window, ObjIntConsumer<String> consumer) {
+		try {
+			forEachLine(path, 0, Files.size(path), window, consumer);
+		} catch (IOException ex) {
+			throw new StorageException("The file could not be mapped.", ex);
+		}
+	}
+	
+	/**
+	 * Reads the lines between the positions informed, which must be at the beginning of a line or at the end of the file.
+	 * @param path
+	 * @param begin the position of the first byte.
+	 * @param end the position after the last byte.
+	 * @param consumer receives each line without the line break and its number, starting at 1 on the first line of the range.
+	 */
+	public static void forEachLine(Path path, long begin, long end, ObjIntConsumer<String> consumer) {
+		forEachLine(path, begin, end, WINDOW, consumer);
+	}
+	
+	private static void forEachLine(Path path, long begin, long end, int window, ObjIntConsumer<String> consumer) {
+		Charset charset = Charset.defaultCharset();
+		byte[] line = new byte[256];
+		int lineNumber = 0;
+		
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long position = begin;
+			
+			while(position < end) {
+				long length = Math.min(window, end - position);
+				MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, length);
+				ByteBuffer view = buffer.duplicate();
+				int limit = buffer.limit();
+				int start = 0;
+				
+				for (int index = 0; index < limit; index++) {
+					if(buffer.get(index) == '\n') {
+						line = decode(view, start, index, line, charset, ++lineNumber, consumer);
+						start = index + 1;
+					}
+				}
+				
+				if(position + length == end) {
+					if(start < limit) {
+						decode(view, start, limit, line, charset, ++lineNumber, consumer);
+					}
+					
+					position = end;
+				} else if(start == 0) {
+					throw new StorageException(String.format("The line %d is longer than %d bytes.", lineNumber + 1, window));
+				} else {
+					//The last line of the window is incomplete, it is read again at the next window.
+					position += start;
+				}
+			}
+		} catch (IOException ex) {
+			throw new StorageException("The file could not be mapped.", ex);
+		}
+	}
+	
+	/**
+	 * Splits the file in ranges of about the same length, each one beginning at the beginning of a line.
+	 * @param path
+	 * @param chunks the number of ranges wanted, there can be fewer when the lines are long.
+	 * @return the positions where the ranges begin, followed by the length of the file.
+	 */
+	public static long[] split(Path path, int chunks) {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			long[] bounds = new long[chunks + 1];
+			ByteBuffer buffer = ByteBuffer.allocate(4096);
+			int count = 1;
+			
+			for (int chunk = 1; chunk < chunks; chunk++) {
+				long position = Math.max(size * chunk / chunks, bounds[count - 1]);
+				long bound = size;
+				
+				//The range begins after the next line break.
+				while(position < size && bound == size) {
+					buffer.clear();
+					
+					int read = channel.read(buffer, position);
+					
+					for (int index = 0; index < read; index++) {
+						if(buffer.get(index) == '\n') {
+							bound = position + index + 1;
+							break;
+						}
+					}
+					
+					position += Math.max(read, 0);
+				}
+				
+				if(bound > bounds[count - 1]
+						&& bound < size) {
+					bounds[count++] = bound;
+				}
+			}
+			
+			bounds[count++] = size;
+			
+			return Arrays.copyOf(bounds, count);
+		} catch (IOException ex) {
+			throw new StorageException("The file could not be split.", ex);
+		}
+	}
+	
+	/**
+	 * Decodes the bytes of the line, without the carriage return, and passes it to the consumer.
+	 * @return the buffer of the line, replaced by a longer one when needed.
+	 */
+	private static byte[] decode(ByteBuffer view, int start, int end, byte[] line, Charset charset, 
+			int lineNumber, ObjIntConsumer<String> consumer) {
+		if(end > start
+				&& view.get(end - 1) == '\r') {
+			end--;
+		}
+		
+		int length = end - start;
+		
+		if(length > line.length) {
+			line = new byte[Math.max(length, line.length * 2)];
+		}
+		
+		view.position(start);
+		view.get(line, 0, length);
+		
+		consumer.accept(new String(line, 0, length, charset), lineNumber);
+		
+		return line;
+	}
+
+}
@@ -0,0 +1,144 @@
+package br.com.neogrid.challenge.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.neogrid.challenge.domain.service.PlanCacheService;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PlanControllerTest {
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Autowired
+	private PlanCacheService planCacheService;
+	
+	@After
+	public void clearCache() {
+		planCacheService.clear();
+	}
+	
+	@Test
+	public void shouldPlanTheTitlesSentAsText() throws Exception {
+		mockMvc.perform(post("/api/plans")
+					.contentType(MediaType.TEXT_PLAIN)
+					.content("Cutting of steel sheets 60min\r\n\nAssembly of the panel 45min\nStep maintenance\n"))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(PlanController.HEADER_OUTPUT_FILE))
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].number").value(1))
+			.andExpect(jsonPath("$[0].description").value("Linha de montagem 1"))
+			.andExpect(jsonPath("$[0].steps[0].title").value("Cutting of steel sheets 60min"))
+			.andExpect(jsonPath("$[0].steps[0].time").value("09:00:00"));
+	}
+	
+	@Test
+	public void shouldPlanTheTitlesSentAsJson() throws Exception {
+		mockMvc.perform(post("/api/plans")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("[\"Cutting of steel sheets 60min\", \"Assembly of the panel 45min\"]"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(1))
+			.andExpect(jsonPath("$[0].steps[1].title").value("Assembly of the panel 45min"));
+	}
+	
+	@Test
+	public void shouldWriteTheOutputFileWhenAskedToPersist() throws Exception {
+		mockMvc.perform(post("/api/plans")
+					.param("persist", "true")
+					.param("format", "CSV")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("[\"Cutting of steel sheets 60min\"]"))
+			.andExpect(status().isOk())
+			.andExpect(header().exists(PlanController.HEADER_OUTPUT_FILE));
+	}
+	
+	@Test
+	public void shouldRejectTheTitlesWithoutTime() throws Exception {
+		mockMvc.perform(post("/api/plans")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("[\"Cutting of steel sheets\"]"))
+			.andExpect(status().isUnprocessableEntity())
+			.andExpect(jsonPath("$.message").exists());
+	}
+	
+	@Test
+	public void shouldRejectEmptyTitles() throws Exception {
+		mockMvc.perform(post("/api/plans")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("[\" \"]"))
+			.andExpect(status().isUnprocessableEntity())
+			.andExpect(jsonPath("$.message").value("The titles are empty."));
+	}
+	
+	@Test
+	public void shouldSubmitTheTitlesAsJob() throws Exception {
+		mockMvc.perform(post("/api/plans/jobs")
+					.contentType(MediaType.TEXT_PLAIN)
+					.content("Cutting of steel sheets 60min\nAssembly of the panel 45min"))
+			.andExpect(status().isAccepted())
+			.andExpect(header().exists("Location"))
+			.andExpect(jsonPath("$.id").exists())
+			.andExpect(jsonPath("$.status").value("QUEUED"));
+	}
+	
+	@Test
+	public void shouldNotFindUnknownJob() throws Exception {
+		mockMvc.perform(get("/api/plans/jobs/unknown"))
+			.andExpect(status().isNotFound());
+	}
+	
+	@Test
+	public void shouldReturnTheAssemblyLinesOfThePlanByRange() throws Exception {
+		StringBuilder titles = new StringBuilder();
+		
+		for (int index = 0; index < 10; index++) {
+			titles.append("Cutting of steel sheets 60min\n");
+		}
+		
+		String key = mockMvc.perform(post("/api/plans")
+					.contentType(MediaType.TEXT_PLAIN)
+					.content(titles.toString()))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getHeader(PlanController.HEADER_PLAN_KEY);
+		
+		mockMvc.perform(get("/api/plans/" + key + "/lines").param("offset", "1").param("limit", "1"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.total").value(2))
+			.andExpect(jsonPath("$.offset").value(1))
+			.andExpect(jsonPath("$.items.length()").value(1))
+			.andExpect(jsonPath("$.items[0].number").value(2));
+		
+		mockMvc.perform(get("/api/plans/" + key + "/titles").param("offset", "8"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.total").value(10))
+			.andExpect(jsonPath("$.items.length()").value(2));
+	}
+	
+	@Test
+	public void shouldNotFindThePagesOfUnknownPlan() throws Exception {
+		mockMvc.perform(get("/api/plans/unknown/lines"))
+			.andExpect(status().isNotFound());
+	}
+
+}
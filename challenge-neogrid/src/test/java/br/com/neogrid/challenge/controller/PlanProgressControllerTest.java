@@ -0,0 +1,100 @@
+package br.com.neogrid.challenge.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import br.com.neogrid.challenge.core.job.JobProperties;
+import br.com.neogrid.challenge.domain.service.PlanCacheService;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PlanProgressControllerTest {
+	
+	@Autowired
+	private MockMvc mockMvc;
+	
+	@Autowired
+	private PlanCacheService planCacheService;
+	
+	@Autowired
+	private JobProperties jobProperties;
+	
+	@After
+	public void clearCache() {
+		planCacheService.clear();
+	}
+	
+	@Test
+	public void shouldStreamTheProgressAndTheAssemblyLines() throws Exception {
+		String events = this.stream("[\"Cutting of steel sheets 60min\", \"Assembly of the panel 45min\"]");
+		
+		assertTrue(events.contains("event:progress"));
+		assertTrue(events.contains("\"stepsLeft\":2"));
+		assertTrue(events.contains("event:assembly-line"));
+		assertTrue(events.contains("\"linesClosed\":1"));
+		assertTrue(events.contains("\"stepsLeft\":0"));
+		assertTrue(events.indexOf("event:assembly-line") < events.indexOf("event:done"));
+		assertTrue(events.contains("\"assemblyLines\":1"));
+	}
+	
+	@Test
+	public void shouldStreamTheAssemblyLinesOfTheCachedPlan() throws Exception {
+		String titles = "[\"Welding of the frame 30min\"]";
+		
+		this.stream(titles);
+		
+		String events = this.stream(titles);
+		
+		assertTrue(events.contains("event:assembly-line"));
+		assertTrue(events.contains("event:done"));
+	}
+	
+	@Test
+	public void shouldStreamTheError() throws Exception {
+		String events = this.stream("[\"Cutting of steel sheets\"]");
+		
+		assertTrue(events.contains("event:error"));
+	}
+	
+	@Test
+	public void shouldStreamWithTheConfiguredTimeout() throws Exception {
+		MvcResult result = mockMvc.perform(post("/api/plans/progress")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("[\"Welding of the frame 30min\"]"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		
+		result.getAsyncResult(10000);
+		
+		assertEquals(jobProperties.getStreamTimeout().toMillis(), result.getRequest().getAsyncContext().getTimeout());
+	}
+	
+	private String stream(String titles) throws Exception {
+		MvcResult result = mockMvc.perform(post("/api/plans/progress")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content(titles))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		
+		result.getAsyncResult(10000);
+		
+		return result.getResponse().getContentAsString();
+	}
+
+}
@@ -0,0 +1,72 @@
+package br.com.neogrid.challenge.core.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import br.com.neogrid.challenge.domain.output.OutputFormat;
+import br.com.neogrid.challenge.domain.service.PlanCacheService;
+import br.com.neogrid.challenge.domain.service.ProcessFileService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class PlanMetricsTest {
+	
+	@Autowired
+	private ProcessFileService processFileService;
+	
+	@Autowired
+	private PlanCacheService planCacheService;
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	@After
+	public void clearCache() {
+		planCacheService.clear();
+	}
+	
+	@Test
+	public void shouldTimeEachStageOfThePlanning() {
+		long solved = this.count(PlanMetrics.STAGE_SOLVE);
+		long written = this.count(PlanMetrics.STAGE_OUTPUT);
+		long saved = this.count(PlanMetrics.STAGE_SAVE);
+		
+		processFileService.processTitles(List.of("Drilling of the base 50min", "Step maintenance"), OutputFormat.TEXT);
+		
+		assertEquals(solved + 1, this.count(PlanMetrics.STAGE_SOLVE));
+		assertEquals(written + 1, this.count(PlanMetrics.STAGE_OUTPUT));
+		assertEquals(saved + 1, this.count(PlanMetrics.STAGE_SAVE));
+		assertTrue(this.count(PlanMetrics.STAGE_STEPS) > 0);
+		assertTrue(this.count(PlanMetrics.STAGE_ASSEMBLY_LINES) > 0);
+	}
+	
+	@Test
+	public void shouldRecordTheLinesAndTheUtilizationOfThePlan() {
+		long plans = meterRegistry.get("challenge.solver.lines").summary().count();
+		
+		processFileService.processTitles(List.of("Drilling of the base 60min", "Polishing of the base 30min"), null);
+		
+		assertEquals(plans + 1, meterRegistry.get("challenge.solver.lines").summary().count());
+		assertTrue(meterRegistry.get("challenge.solver.utilization").summary().max() > 0);
+	}
+	
+	private long count(String stage) {
+		Timer timer = meterRegistry.find("challenge.plan.stage").tag("stage", stage).timer();
+		
+		return timer == null ? 0 : timer.count();
+	}
+
+}
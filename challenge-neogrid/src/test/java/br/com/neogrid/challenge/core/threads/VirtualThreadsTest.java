@@ -0,0 +1,66 @@
+package br.com.neogrid.challenge.core.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+	
+	@Test
+	public void shouldStartOneThreadForEachTask() throws InterruptedException, ExecutionException {
+		ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-", 2, 1);
+		
+		try {
+			String name = executor.submit(() -> Thread.currentThread().getName()).get();
+			
+			if(!VirtualThreads.isSupported()) {
+				assertTrue(name.startsWith("test-"));
+				assertEquals(2, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+			}
+			
+			assertEquals(Integer.valueOf(2), executor.submit(() -> 1 + 1).get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void shouldRejectTheTasksBeyondTheQueueWithoutVirtualThreads() throws InterruptedException {
+		if(VirtualThreads.isSupported()) {
+			return;
+		}
+		
+		ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-", 1, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		
+		try {
+			executor.execute(() -> {
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			executor.execute(() -> {});
+			
+			try {
+				executor.execute(() -> {});
+				fail("The task beyond the queue should be rejected.");
+			} catch (RejectedExecutionException ex) {
+				assertEquals(1, ((ThreadPoolExecutor) executor).getQueue().size());
+			}
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+}
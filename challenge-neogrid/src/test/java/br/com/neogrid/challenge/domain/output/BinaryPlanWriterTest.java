@@ -0,0 +1,62 @@
+package br.com.neogrid.challenge.domain.output;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+
+import org.junit.Test;
+
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.Step;
+
+public class BinaryPlanWriterTest {
+	
+	@Test
+	public void shouldWriteEachTitleOnceInTheDictionary() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		AssemblyLine assemblyLine = new AssemblyLine();
+		
+		assemblyLine.setNumber(3);
+		assemblyLine.getSteps().add(Step.builder().title("Step 60min").timeInMinutes(60).time(LocalTime.of(9, 0)).build());
+		assemblyLine.getSteps().add(Step.builder().title("Step 60min").timeInMinutes(60).time(LocalTime.of(10, 0)).build());
+		
+		try (PlanWriter writer = OutputFormat.BINARY.createWriter(Channels.newChannel(output))) {
+			writer.write(assemblyLine);
+			writer.finish();
+		}
+		
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+		byte[] magic = new byte[4];
+		
+		input.readFully(magic);
+		assertEquals("ALP1", new String(magic, StandardCharsets.US_ASCII));
+		
+		assertEquals(BinaryPlanWriter.TITLE, input.readByte());
+		byte[] title = new byte[input.readInt()];
+		input.readFully(title);
+		assertEquals("Step 60min", new String(title, StandardCharsets.UTF_8));
+		
+		assertEquals(BinaryPlanWriter.LINE, input.readByte());
+		assertEquals(3, input.readInt());
+		assertEquals(2, input.readInt());
+		
+		assertEquals(BinaryPlanWriter.STEP, input.readByte());
+		assertEquals(0, input.readInt());
+		assertEquals(540, input.readShort());
+		assertEquals(60, input.readShort());
+		
+		assertEquals(BinaryPlanWriter.STEP, input.readByte());
+		assertEquals(0, input.readInt());
+		assertEquals(600, input.readShort());
+		assertEquals(60, input.readShort());
+		
+		assertEquals(BinaryPlanWriter.END, input.readByte());
+	}
+
+}
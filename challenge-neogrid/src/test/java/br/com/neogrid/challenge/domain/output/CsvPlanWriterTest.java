@@ -0,0 +1,38 @@
+package br.com.neogrid.challenge.domain.output;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+
+import org.junit.Test;
+
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.Step;
+
+public class CsvPlanWriterTest {
+	
+	@Test
+	public void shouldWriteOneRowForEachStep() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		AssemblyLine assemblyLine = new AssemblyLine();
+		
+		assemblyLine.setNumber(1);
+		assemblyLine.getSteps().add(Step.builder().title("Step \"A\", 60min").timeInMinutes(60).time(LocalTime.of(9, 0)).build());
+		assemblyLine.getSteps().add(Step.builder().title("Labor gymnastics").time(LocalTime.of(16, 0)).build());
+		
+		try (PlanWriter writer = OutputFormat.CSV.createWriter(Channels.newChannel(output))) {
+			writer.write(assemblyLine);
+			writer.finish();
+		}
+		
+		assertEquals(
+				"line,time,minutes,title\n1,09:00,60,\"Step \"\"A\"\", 60min\"\n1,16:00,,Labor gymnastics\n", 
+				output.toString(StandardCharsets.UTF_8)
+			);
+	}
+
+}
@@ -0,0 +1,64 @@
+package br.com.neogrid.challenge.domain.output;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+
+import org.junit.Test;
+
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.Step;
+
+public class JsonPlanWriterTest {
+	
+	@Test
+	public void shouldWriteTheArrayOfAssemblyLines() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		AssemblyLine first = new AssemblyLine();
+		AssemblyLine second = new AssemblyLine();
+		
+		first.setNumber(1);
+		first.getSteps().add(Step.builder().title("Step \"A\"\t60min").timeInMinutes(60).time(LocalTime.of(9, 0)).build());
+		second.setNumber(2);
+		second.getSteps().add(Step.builder().title("Labor gymnastics").time(LocalTime.of(16, 0)).build());
+		
+		try (PlanWriter writer = OutputFormat.JSON.createWriter(Channels.newChannel(output))) {
+			writer.write(first);
+			writer.write(second);
+			writer.finish();
+		}
+		
+		assertEquals(
+				"{\"assemblyLines\":["
+				+ "{\"number\":1,\"steps\":[{\"time\":\"09:00\",\"minutes\":60,\"title\":\"Step \\\"A\\\"\\u000960min\"}]},"
+				+ "{\"number\":2,\"steps\":[{\"time\":\"16:00\",\"minutes\":null,\"title\":\"Labor gymnastics\"}]}"
+				+ "]}", 
+				output.toString(StandardCharsets.UTF_8)
+			);
+	}
+	
+	@Test
+	public void shouldWriteAnEmptyArrayWhenThereAreNoAssemblyLines() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		
+		try (PlanWriter writer = OutputFormat.JSON.createWriter(Channels.newChannel(output))) {
+			writer.finish();
+		}
+		
+		assertEquals("{\"assemblyLines\":[]}", output.toString(StandardCharsets.UTF_8));
+	}
+	
+	@Test
+	public void shouldNotEndTheDocumentWhenTheWriterIsNotFinished() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		
+		OutputFormat.JSON.createWriter(Channels.newChannel(output)).close();
+		
+		assertEquals("", output.toString(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,75 @@
+package br.com.neogrid.challenge.domain.output;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+
+import org.junit.Test;
+
+import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.Step;
+
+public class TextPlanWriterTest {
+	
+	@Test
+	public void shouldWriteTheStepsWithTheStartTime() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		
+		try (TextPlanWriter writer = new TextPlanWriter(Channels.newChannel(output), StandardCharsets.UTF_8)) {
+			writer.write(this.createAssemblyLine());
+			writer.finish();
+		}
+		
+		assertEquals(
+				"Linha de montagem 1\n09:00 Step of the production process 60min\n10:05 Manutenção 5min\n\n", 
+				output.toString(StandardCharsets.UTF_8)
+			);
+	}
+	
+	@Test
+	public void shouldWriteTheSameTextWhenTheBuffersAreSmall() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		
+		try (TextPlanWriter writer = new TextPlanWriter(Channels.newChannel(output), StandardCharsets.UTF_8, 3)) {
+			writer.write(this.createAssemblyLine());
+			writer.writeLine("Erro:");
+			writer.finish();
+		}
+		
+		assertEquals(
+				"Linha de montagem 1\n09:00 Step of the production process 60min\n10:05 Manutenção 5min\n\nErro:\n", 
+				output.toString(StandardCharsets.UTF_8)
+			);
+	}
+	
+	@Test
+	public void shouldWriteTheSecondsWhenTheTimeHasThem() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		AssemblyLine assemblyLine = new AssemblyLine();
+		
+		assemblyLine.setNumber(2);
+		assemblyLine.getSteps().add(Step.builder().title("Step").time(LocalTime.of(9, 0, 30)).build());
+		
+		try (TextPlanWriter writer = new TextPlanWriter(Channels.newChannel(output), StandardCharsets.UTF_8)) {
+			writer.write(assemblyLine);
+			writer.finish();
+		}
+		
+		assertEquals("Linha de montagem 2\n09:00:30 Step\n\n", output.toString(StandardCharsets.UTF_8));
+	}
+	
+	private AssemblyLine createAssemblyLine() {
+		AssemblyLine assemblyLine = new AssemblyLine();
+		
+		assemblyLine.setNumber(1);
+		assemblyLine.getSteps().add(Step.builder().title("Step of the production process 60min").time(LocalTime.of(9, 0)).build());
+		assemblyLine.getSteps().add(Step.builder().title("Manutenção 5min").time(LocalTime.of(10, 5)).build());
+		
+		return assemblyLine;
+	}
+
+}
@@ -0,0 +1,85 @@
+package br.com.neogrid.challenge.domain.parser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.neogrid.challenge.domain.exception.ProcessException;
+import br.com.neogrid.challenge.domain.parser.ChunkedTitleParser.ParsedTitles;
+
+public class ChunkedTitleParserTest {
+	
+	private ForkJoinPool pool;
+	
+	private Path file;
+	
+	@Before
+	public void createFile() throws IOException {
+		pool = new ForkJoinPool(2);
+		file = Files.createTempFile("input", ".txt");
+	}
+	
+	@After
+	public void deleteFile() throws IOException {
+		pool.shutdown();
+		Files.deleteIfExists(file);
+	}
+	
+	@Test
+	public void shouldMergeTheChunksInTheOrderOfTheFile() throws IOException {
+		List<String> lines = new ArrayList<>();
+		
+		for (int index = 0; index < 100; index++) {
+			lines.add(index % 10 == 0 ? "" : "Step of the production process " + (index % 7 * 5 + 5) + "min");
+		}
+		
+		Files.write(file, lines);
+		
+		ParsedTitles parsed = ChunkedTitleParser.parse(file, pool, 8);
+		
+		assertEquals(90, parsed.getTitles().size());
+		
+		for (int index = 0; index < parsed.getTitles().size(); index++) {
+			assertEquals(TitleParser.parseDuration(parsed.getTitles().get(index)), parsed.getDurations()[index]);
+		}
+	}
+	
+	@Test
+	public void shouldReportTheLineInTheWholeFile() throws IOException {
+		List<String> lines = new ArrayList<>();
+		
+		for (int index = 0; index < 50; index++) {
+			lines.add(index == 42 ? "Step of the production process" : "Step of the production process 30min");
+		}
+		
+		Files.write(file, lines);
+		
+		try {
+			ChunkedTitleParser.parse(file, pool, 5);
+		} catch (ProcessException ex) {
+			assertTrue(ex.getMessage().contains("line 43"));
+			return;
+		}
+		
+		throw new AssertionError("The malformed line was not reported.");
+	}
+	
+	@Test
+	public void shouldParseTheDurationsOfTheListInChunks() {
+		List<String> titles = List.of("Step 60min", "Step 45min", "Step maintenance", "Step 30min", "Step 15min");
+		
+		assertArrayEquals(new int[] {60, 45, 5, 30, 15}, ChunkedTitleParser.parseDurations(titles, pool, 3));
+	}
+
+}
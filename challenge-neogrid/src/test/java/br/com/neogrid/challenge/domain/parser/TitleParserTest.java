@@ -0,0 +1,49 @@
+package br.com.neogrid.challenge.domain.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import br.com.neogrid.challenge.domain.exception.ProcessException;
+
+public class TitleParserTest {
+	
+	@Test
+	public void shouldJoinAllDigitsOfTheTitle() {
+		assertEquals(45, TitleParser.parseDuration("Step of the production process 45min"));
+		assertEquals(160, TitleParser.parseDuration("Step 1 of the production process 60min"));
+	}
+	
+	@Test
+	public void shouldReturn5WhenTitleContainsMaintenanceIgnoringCase() {
+		assertEquals(5, TitleParser.parseDuration("Step MAINTENANCE of the production process"));
+		assertEquals(5, TitleParser.parseDuration("Step mmaintenance of the production process"));
+		assertEquals(TitleParser.MISSING, TitleParser.parseDuration("Step maintenanc of the production process"));
+	}
+	
+	@Test
+	public void shouldReadOnlyThePositionsInformed() {
+		String text = "first 30min\nsecond 45min";
+		
+		assertEquals(45, TitleParser.parseDuration(text, 12, text.length()));
+	}
+	
+	@Test
+	public void shouldReturnOverflowWhenTheDigitsDoNotFitInInt() {
+		assertEquals(TitleParser.OVERFLOW, TitleParser.parseDuration("Step 99999999999min"));
+	}
+	
+	@Test
+	public void shouldReportTheLineWhenTheTimeIsMissing() {
+		try {
+			TitleParser.parseDuration("Step one of the production process", 7);
+		} catch (ProcessException ex) {
+			assertTrue(ex.getMessage().contains("line 7"));
+			return;
+		}
+		
+		throw new AssertionError("The missing time was not reported.");
+	}
+
+}
@@ -0,0 +1,129 @@
+package br.com.neogrid.challenge.domain.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import br.com.neogrid.challenge.core.storage.StorageProperties;
+import br.com.neogrid.challenge.domain.model.BatchResult;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class BatchPlanServiceTest {
+	
+	@Autowired
+	private BatchPlanService service;
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	@Autowired
+	private PlanCacheService planCacheService;
+	
+	private final List<Path> files = new ArrayList<>();
+	
+	@Before
+	public void createInputFiles() throws IOException {
+		this.createInputFile("batch-site-a.txt", "Cutting of steel sheets 60min\nAssembly of the panel 45min\n");
+		this.createInputFile("batch-site-b.txt", "Welding of the frame 30min\nStep maintenance\n");
+		this.createInputFile("batch-site-c.txt", "Painting of the frame without time\n");
+		this.createInputFile("other-site.txt", "Painting of the frame 20min\n");
+	}
+	
+	@After
+	public void deleteFiles() throws IOException {
+		for (Path file : files) {
+			Files.deleteIfExists(file);
+		}
+		
+		planCacheService.clear();
+	}
+	
+	@Test
+	public void shouldPlanEachFileThatMatchesThePattern() throws IOException {
+		BatchResult result = service.process("batch-site-*.txt");
+		
+		files.add(storageProperties.getLocal().getDirectoryOutput().resolve(result.getManifest()));
+		
+		assertEquals(3, result.getFiles().size());
+		assertEquals(Integer.valueOf(2), result.getDone());
+		assertEquals(Integer.valueOf(1), result.getFailed());
+		
+		BatchResult.BatchFile first = result.getFiles().get(0);
+		BatchResult.BatchFile second = result.getFiles().get(1);
+		BatchResult.BatchFile third = result.getFiles().get(2);
+		
+		assertEquals("batch-site-a.txt", first.getInput());
+		assertEquals(BatchResult.Status.DONE, first.getStatus());
+		assertNotNull(first.getOutput());
+		assertNotEquals(first.getOutput(), second.getOutput());
+		assertEquals(BatchResult.Status.FAILED, third.getStatus());
+		assertNotNull(third.getMessage());
+		assertEquals("output_error_batch-site-c.txt", third.getOutput());
+		
+		files.add(storageProperties.getLocal().getDirectoryOutput().resolve(third.getOutput()));
+		
+		String manifest = Files.readString(
+				storageProperties.getLocal().getDirectoryOutput().resolve(result.getManifest()), 
+				StandardCharsets.UTF_8
+			);
+		
+		assertTrue(manifest.contains("\"batch-site-b.txt\""));
+		assertTrue(manifest.contains("\"millis\""));
+		assertTrue(manifest.contains("\"" + result.getManifest() + "\""));
+	}
+	
+	@Test
+	public void shouldWriteAnOutputForEachInputWithTheSameTitles() throws IOException {
+		this.createInputFile("batch-copy-a.txt", "Cutting of steel sheets 60min\nAssembly of the panel 45min\n");
+		this.createInputFile("batch-copy-b.txt", "Cutting of steel sheets 60min\nAssembly of the panel 45min\n");
+		
+		BatchResult result = service.process("batch-copy-*.txt");
+		
+		files.add(storageProperties.getLocal().getDirectoryOutput().resolve(result.getManifest()));
+		
+		BatchResult.BatchFile first = result.getFiles().get(0);
+		BatchResult.BatchFile second = result.getFiles().get(1);
+		
+		assertEquals(Integer.valueOf(2), result.getDone());
+		assertNotEquals(first.getOutput(), second.getOutput());
+		assertTrue(Files.exists(storageProperties.getLocal().getDirectoryOutput().resolve(first.getOutput())));
+		assertTrue(Files.exists(storageProperties.getLocal().getDirectoryOutput().resolve(second.getOutput())));
+	}
+	
+	@Test
+	public void shouldReturnAnEmptyBatchWhenNoFileMatches() {
+		BatchResult result = service.process("nothing-*.txt");
+		
+		files.add(storageProperties.getLocal().getDirectoryOutput().resolve(result.getManifest()));
+		
+		assertTrue(result.getFiles().isEmpty());
+		assertEquals(Integer.valueOf(0), result.getFailed());
+	}
+	
+	private void createInputFile(String name, String content) throws IOException {
+		Path file = storageProperties.getLocal().getDirectoryInput().resolve(name);
+		
+		Files.writeString(file, content, StandardCharsets.UTF_8);
+		files.add(file);
+	}
+
+}
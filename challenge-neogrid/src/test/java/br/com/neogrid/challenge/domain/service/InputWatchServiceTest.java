@@ -0,0 +1,113 @@
+package br.com.neogrid.challenge.domain.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import br.com.neogrid.challenge.core.storage.StorageProperties;
+import br.com.neogrid.challenge.domain.model.BatchResult;
+import br.com.neogrid.challenge.domain.model.BatchResult.BatchFile;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+		"challenge.watch.enabled=true", 
+		"challenge.watch.debounce=200ms", 
+		"challenge.watch.glob=watch-*.txt"
+	})
+@ActiveProfiles("test")
+public class InputWatchServiceTest {
+	
+	@Autowired
+	private InputWatchService service;
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	@Autowired
+	private PlanCacheService planCacheService;
+	
+	private final List<Path> files = new ArrayList<>();
+	
+	@After
+	public void deleteFiles() throws IOException {
+		for (Path file : files) {
+			Files.deleteIfExists(file);
+		}
+		
+		planCacheService.clear();
+	}
+	
+	@Test
+	public void shouldPlanTheFileDroppedInTheInputDirectory() throws IOException, InterruptedException {
+		Path file = this.inputFile("watch-site-a.txt");
+		
+		Files.writeString(file, "Cutting of steel sheets 60min\nAssembly of the panel 45min\n", StandardCharsets.UTF_8);
+		
+		BatchFile result = this.await("watch-site-a.txt");
+		
+		assertEquals(BatchResult.Status.DONE, result.getStatus());
+		assertNotNull(result.getOutput());
+	}
+	
+	@Test
+	public void shouldWaitForTheFileToBeCompletelyWritten() throws IOException, InterruptedException {
+		Path file = this.inputFile("watch-site-b.txt");
+		
+		Files.writeString(file, "Welding of the frame", StandardCharsets.UTF_8);
+		Thread.sleep(50);
+		Files.writeString(file, " 30min\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		
+		BatchFile result = this.await("watch-site-b.txt");
+		
+		assertEquals(BatchResult.Status.DONE, result.getStatus());
+	}
+	
+	@Test
+	public void shouldIgnoreTheFilesThatDoNotMatchThePattern() throws IOException, InterruptedException {
+		Path file = this.inputFile("ignored-site.txt");
+		
+		Files.writeString(file, "Welding of the frame 30min\n", StandardCharsets.UTF_8);
+		Thread.sleep(500);
+		
+		assertNull(service.getResult("ignored-site.txt"));
+	}
+	
+	private Path inputFile(String name) {
+		Path file = storageProperties.getLocal().getDirectoryInput().resolve(name);
+		
+		files.add(file);
+		
+		return file;
+	}
+	
+	private BatchFile await(String name) throws InterruptedException {
+		for (int attempt = 0; attempt < 500; attempt++) {
+			BatchFile result = service.getResult(name);
+			
+			if(result != null) {
+				return result;
+			}
+			
+			Thread.sleep(20);
+		}
+		
+		throw new AssertionError("The file was not planned: " + name);
+	}
+
+}
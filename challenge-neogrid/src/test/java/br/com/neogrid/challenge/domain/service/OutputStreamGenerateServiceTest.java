@@ -1,10 +1,18 @@
 package br.com.neogrid.challenge.domain.service;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -13,8 +21,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import br.com.neogrid.challenge.core.storage.StorageProperties;
 import br.com.neogrid.challenge.domain.model.AssemblyLine;
 import br.com.neogrid.challenge.domain.model.Step;
+import br.com.neogrid.challenge.domain.output.OutputFormat;
 import br.com.neogrid.challenge.domain.service.FileStorageService.StreamStorage;
 import br.com.neogrid.challenge.infrastructure.storage.StorageException;
 
@@ -26,6 +36,9 @@ public class OutputStreamGenerateServiceTest {
 	@Autowired
 	private OutputStreamGenerateService service;
 	
+	@Autowired
+	private StorageProperties storageProperties;
+	
 	@Test(expected = StorageException.class)
 	public void shouldFailWhenAssemblyLinesIsNull() {
 		service.createOutputFile(null);
@@ -54,4 +67,58 @@ public class OutputStreamGenerateServiceTest {
 		
 		assertNotNull(stream);
 	}
+	
+	@Test
+	public void shouldWriteTheAssemblyLinesToTheOutputFile() throws IOException {
+		List<AssemblyLine> assemblyLines = new ArrayList<>();
+		AssemblyLine assemblyLine = new AssemblyLine();
+		
+		assemblyLine.setNumber(1);
+		assemblyLine.getSteps().add(Step.builder()
+				.time(LocalTime.of(9, 0))
+				.title("Step of the production process 45min")
+				.build());
+		
+		assemblyLines.add(assemblyLine);
+		
+		StreamStorage output = service.createOutputFile(assemblyLines);
+		
+		try (InputStream stream = output.getStream()) {
+			assertEquals(
+					"Linha de montagem 1\n09:00 Step of the production process 45min\n\n", 
+					new String(stream.readAllBytes(), Charset.defaultCharset())
+				);
+		}
+	}
+	
+	@Test
+	public void shouldNotKeepTheOutputFileWhenTheWritingFails() throws IOException {
+		List<AssemblyLine> assemblyLines = new ArrayList<>();
+		AssemblyLine first = new AssemblyLine();
+		AssemblyLine second = new AssemblyLine();
+		
+		first.setNumber(1);
+		first.getSteps().add(Step.builder().time(LocalTime.of(9, 0)).title("Step of the production process 45min").build());
+		//The step without start time can not be written.
+		second.setNumber(2);
+		second.getSteps().add(Step.builder().title("Step of the production process 30min").build());
+		
+		assemblyLines.add(first);
+		assemblyLines.add(second);
+		
+		long outputs = this.countJsonOutputs();
+		
+		try {
+			service.createOutputFile(assemblyLines, OutputFormat.JSON);
+			fail("The step has no start time.");
+		} catch (RuntimeException ex) {
+			assertEquals(outputs, this.countJsonOutputs());
+		}
+	}
+	
+	private long countJsonOutputs() throws IOException {
+		try (Stream<Path> files = Files.list(storageProperties.getLocal().getDirectoryOutput())) {
+			return files.filter(file -> file.getFileName().toString().endsWith(OutputFormat.JSON.getExtension())).count();
+		}
+	}
 }
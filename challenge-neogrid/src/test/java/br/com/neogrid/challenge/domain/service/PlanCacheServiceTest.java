@@ -0,0 +1,140 @@
+package br.com.neogrid.challenge.domain.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import br.com.neogrid.challenge.core.cache.PlanCacheProperties;
+import br.com.neogrid.challenge.core.solver.SolverProperties;
+import br.com.neogrid.challenge.core.storage.PeriodProperties;
+import br.com.neogrid.challenge.domain.model.Response;
+import br.com.neogrid.challenge.domain.service.FileStorageService.StreamStorage;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class PlanCacheServiceTest {
+	
+	@Autowired
+	private PlanCacheService service;
+	
+	@Autowired
+	private PlanCacheProperties planCacheProperties;
+	
+	@Autowired
+	private PeriodProperties periodProperties;
+	
+	@Autowired
+	private SolverProperties solverProperties;
+	
+	@After
+	public void clearCache() {
+		service.clear();
+	}
+	
+	@Test
+	public void shouldGenerateTheSameKeyWhenTitlesOnlyDifferInBlanks() {
+		List<String> titles = Arrays.asList("Step of the production process 45min", "Step maintenance");
+		List<String> other = Arrays.asList("  Step of the production process 45min", "Step maintenance  ");
+		
+		assertEquals(service.generateKey(titles), service.generateKey(other));
+	}
+	
+	@Test
+	public void shouldGenerateAnotherKeyWhenThePeriodChanges() {
+		List<String> titles = Arrays.asList("Step of the production process 45min");
+		LocalTime finish = periodProperties.getMorning().getFinish();
+		String key = service.generateKey(titles);
+		
+		try {
+			periodProperties.getMorning().setFinish(finish.plusMinutes(30));
+			
+			assertNotEquals(key, service.generateKey(titles));
+		} finally {
+			periodProperties.getMorning().setFinish(finish);
+		}
+	}
+	
+	@Test
+	public void shouldGenerateAnotherKeyWhenTheTimeLimitChanges() {
+		List<String> titles = Arrays.asList("Step of the production process 45min");
+		Long maxMillis = solverProperties.getMaxMillis();
+		String key = service.generateKey(titles);
+		
+		try {
+			solverProperties.setMaxMillis(200L);
+			
+			assertNotEquals(key, service.generateKey(titles));
+		} finally {
+			solverProperties.setMaxMillis(maxMillis);
+		}
+	}
+	
+	@Test
+	public void shouldReturnTheOutputFileNameWhenTheKeyWasStored() {
+		service.put("key", this.createResponse("output.txt"));
+		
+		Response response = service.get("key");
+		
+		assertNotNull(response);
+		assertEquals("output.txt", response.getOutput().getName());
+		assertNotNull(response.getOutput().getStream());
+	}
+	
+	@Test
+	public void shouldEvictTheLeastRecentlyUsedWhenTheCacheIsFull() {
+		Integer maxEntries = planCacheProperties.getMaxEntries();
+		
+		try {
+			planCacheProperties.setMaxEntries(2);
+			
+			service.put("first", this.createResponse("first.txt"));
+			service.put("second", this.createResponse("second.txt"));
+			service.get("first");
+			service.put("third", this.createResponse("third.txt"));
+			
+			assertNotNull(service.get("first"));
+			assertNull(service.get("second"));
+			assertNotNull(service.get("third"));
+		} finally {
+			planCacheProperties.setMaxEntries(maxEntries);
+		}
+	}
+	
+	@Test
+	public void shouldReturnNullWhenTheEntryIsExpired() throws InterruptedException {
+		Duration maxAge = planCacheProperties.getMaxAge();
+		
+		try {
+			planCacheProperties.setMaxAge(Duration.ofMillis(1));
+			
+			service.put("key", this.createResponse("output.txt"));
+			Thread.sleep(5);
+			
+			assertNull(service.get("key"));
+		} finally {
+			planCacheProperties.setMaxAge(maxAge);
+		}
+	}
+	
+	private Response createResponse(String outputName) {
+		return Response.builder()
+				.output(StreamStorage.builder().name(outputName).path(outputName).build())
+				.build();
+	}
+
+}
@@ -0,0 +1,95 @@
+package br.com.neogrid.challenge.domain.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import br.com.neogrid.challenge.core.job.JobProperties;
+import br.com.neogrid.challenge.domain.model.PlanJob;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class PlanJobServiceTest {
+	
+	@Autowired
+	private PlanJobService service;
+	
+	@Autowired
+	private JobProperties jobProperties;
+	
+	@Autowired
+	private PlanCacheService planCacheService;
+	
+	@After
+	public void clearCache() {
+		planCacheService.clear();
+	}
+	
+	@Test
+	public void shouldGenerateThePlanInBackground() throws InterruptedException {
+		PlanJob job = service.submit(List.of("Cutting of steel sheets 60min", "Assembly of the panel 45min"), null);
+		
+		assertNotNull(job.getId());
+		assertEquals(PlanJob.Status.QUEUED, job.getStatus());
+		
+		PlanJob finished = this.await(job.getId());
+		
+		assertEquals(PlanJob.Status.DONE, finished.getStatus());
+		assertEquals(1, finished.getAssemblyLines().size());
+		assertNull(finished.getOutputFile());
+	}
+	
+	@Test
+	public void shouldKeepTheMessageWhenThePlanFails() throws InterruptedException {
+		PlanJob job = service.submit(List.of(" "), null);
+		
+		PlanJob finished = this.await(job.getId());
+		
+		assertEquals(PlanJob.Status.FAILED, finished.getStatus());
+		assertEquals("The titles are empty.", finished.getMessage());
+	}
+	
+	@Test
+	public void shouldDiscardTheJobsAfterTheRetention() throws InterruptedException {
+		Duration retention = jobProperties.getRetention();
+		
+		try {
+			PlanJob job = service.submit(List.of("Cutting of steel sheets 60min"), null);
+			
+			this.await(job.getId());
+			jobProperties.setRetention(Duration.ZERO);
+			Thread.sleep(5);
+			
+			assertNull(service.get(job.getId()));
+		} finally {
+			jobProperties.setRetention(retention);
+		}
+	}
+	
+	private PlanJob await(String id) throws InterruptedException {
+		for (int attempt = 0; attempt < 500; attempt++) {
+			PlanJob job = service.get(id);
+			
+			if(job.getFinished() != null) {
+				return job;
+			}
+			
+			Thread.sleep(10);
+		}
+		
+		throw new AssertionError("The job did not finish: " + id);
+	}
+
+}
@@ -1,11 +1,23 @@
 package br.com.neogrid.challenge.domain.service;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.stream.Collectors;
 
 import org.junit.Test;
@@ -15,8 +27,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import br.com.neogrid.challenge.core.storage.StorageProperties;
+import br.com.neogrid.challenge.core.threads.ThreadsProperties;
 import br.com.neogrid.challenge.domain.exception.ProcessException;
+import br.com.neogrid.challenge.domain.model.PlanProgress;
 import br.com.neogrid.challenge.domain.model.Response;
+import br.com.neogrid.challenge.domain.output.OutputFormat;
 import br.com.neogrid.challenge.domain.service.FileStorageService.StreamStorage;
 
 @RunWith(SpringRunner.class)
@@ -27,6 +43,15 @@ public class ProcessFileServiceTest {
 	@Autowired
 	private ProcessFileService service;
 	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	@Autowired
+	private ThreadsProperties threadsProperties;
+	
+	@Autowired
+	private ForkJoinPool solverForkJoinPool;
+	
 	@Test(expected = ProcessException.class)
 	public void shouldFailWhenFileStorageIsNull() {
 		service.processInput(null);
@@ -66,6 +91,36 @@ public class ProcessFileServiceTest {
 		service.processInput(fileStorage);
 	}
 	
+	@Test
+	public void shouldReportTheLineOfTheFileOfTheMalformedTitle() {
+		byte[] bytes = "Step of the production process 30min\n\nStep of the production process\n".getBytes();
+		
+		try {
+			service.processInput(StreamStorage.builder().stream(new ByteArrayInputStream(bytes)).build());
+		} catch (ProcessException ex) {
+			assertTrue(ex.getCause().getMessage().contains("line 3"));
+			
+			return;
+		}
+		
+		throw new AssertionError("The malformed line was not reported.");
+	}
+	
+	@Test
+	public void shouldWriteTheDefaultErrorFileWhenTheNamedInputFails() {
+		byte[] bytes = "Step of the production process\n".getBytes();
+		
+		try {
+			service.processInput(StreamStorage.builder().name("input.txt").stream(new ByteArrayInputStream(bytes)).build());
+		} catch (ProcessException ex) {
+			assertEquals("output_error.txt", ex.getResponse().getOutput().getName());
+			
+			return;
+		}
+		
+		throw new AssertionError("The malformed input did not fail.");
+	}
+	
 	@Test
 	public void shouldGenerateOutputStreamWhenProcessingValidInputStream() {
 		List<String> input = new ArrayList<>();
@@ -84,5 +139,147 @@ public class ProcessFileServiceTest {
 		assertNotNull(response.getOutput());
 		assertNotNull(response.getOutput().getStream());
 	}
+	
+	@Test
+	public void shouldReturnTheSameOutputWhenProcessingTheSameInputAgain() {
+		List<String> input = new ArrayList<>();
+		
+		input.add("Step of the production process 30min");
+		input.add("Step of the production process 60min");
+		
+		byte[] bytes = input.stream().collect(Collectors.joining("\n", "", "\n")).getBytes();
+		
+		Response first = service.processInput(StreamStorage.builder().stream(new ByteArrayInputStream(bytes)).build());
+		Response second = service.processInput(StreamStorage.builder().stream(new ByteArrayInputStream(bytes)).build());
+		
+		assertEquals(first.getOutput().getName(), second.getOutput().getName());
+		assertEquals(first.getAssemblyLines(), second.getAssemblyLines());
+	}
+	
+	@Test
+	public void shouldReturnTheOutputStreamAndCopiesOfTheAssemblyLinesWhenThePlanIsCached() throws IOException {
+		byte[] bytes = "Step of the production process 35min\nStep of the production process 50min\n".getBytes();
+		
+		Response first = service.processInput(StreamStorage.builder().stream(new ByteArrayInputStream(bytes)).build());
+		Response second = service.processInput(StreamStorage.builder().stream(new ByteArrayInputStream(bytes)).build());
+		
+		try (InputStream stream = second.getOutput().getStream()) {
+			assertArrayEquals(Files.readAllBytes(Path.of(first.getOutput().getPath())), stream.readAllBytes());
+		}
+		
+		second.getAssemblyLines().get(0).getSteps().clear();
+		
+		Response third = service.processInput(StreamStorage.builder().stream(new ByteArrayInputStream(bytes)).build());
+		
+		assertEquals(first.getAssemblyLines(), third.getAssemblyLines());
+		
+		try {
+			third.getAssemblyLines().clear();
+			fail("The cached assembly lines can not be changed.");
+		} catch (UnsupportedOperationException ex) {
+			assertEquals(first.getAssemblyLines().size(), third.getAssemblyLines().size());
+		}
+	}
+	
+	@Test
+	public void shouldReturnTheLowerBoundAlsoWhenThePlanIsCached() {
+		List<String> input = new ArrayList<>();
+		
+		input.add("Step of the production process 120min");
+		input.add("Step of the production process 150min");
+		input.add("Step of the production process 170min");
+		
+		byte[] bytes = input.stream().collect(Collectors.joining("\n", "", "\n")).getBytes();
+		
+		Response first = service.processInput(StreamStorage.builder().stream(new ByteArrayInputStream(bytes)).build());
+		Response second = service.processInput(StreamStorage.builder().stream(new ByteArrayInputStream(bytes)).build());
+		
+		assertEquals(Integer.valueOf(2), first.getLowerBound());
+		assertEquals(first.getOutput().getName(), second.getOutput().getName());
+		assertEquals(first.getLowerBound(), second.getLowerBound());
+	}
+	
+	@Test
+	public void shouldReadTheTitlesMappedInMemoryWhenTheInputHasPath() throws IOException {
+		Path path = Files.createTempFile("input", ".txt");
+		StorageProperties.Reader reader = storageProperties.getReader();
+		
+		try {
+			Files.write(path, "Step of the production process 15min\n\nStep maintenance of the production process\n".getBytes());
+			storageProperties.setReader(StorageProperties.Reader.MEMORY_MAPPED);
+			
+			Response response = service.processInput(StreamStorage.builder()
+					.path(path.toString())
+					.stream(Files.newInputStream(path))
+					.build());
+			
+			assertEquals(List.of("Step of the production process 15min", "Step maintenance of the production process"), response.getTitles());
+		} finally {
+			storageProperties.setReader(reader);
+			Files.deleteIfExists(path);
+		}
+	}
+	
+	@Test
+	public void shouldGenerateTheOutputInTheFormatOfTheInput() {
+		byte[] bytes = "Step of the production process 20min\n".getBytes();
+		
+		Response text = service.processInput(StreamStorage.builder()
+				.stream(new ByteArrayInputStream(bytes))
+				.build());
+		Response json = service.processInput(StreamStorage.builder()
+				.stream(new ByteArrayInputStream(bytes))
+				.format(OutputFormat.JSON)
+				.build());
+		
+		assertTrue(text.getOutput().getName().endsWith(".txt"));
+		assertTrue(json.getOutput().getName().endsWith(".json"));
+		assertEquals(OutputFormat.JSON, json.getOutput().getFormat());
+	}
+	
+	@Test
+	public void shouldSolveOnThePoolOfTheSolverWhenTheRequestsUseVirtualThreads() {
+		ThreadsProperties.Mode mode = threadsProperties.getMode();
+		
+		try {
+			threadsProperties.setMode(ThreadsProperties.Mode.VIRTUAL);
+			
+			List<Thread> threads = new CopyOnWriteArrayList<>();
+			Response response = service.processTitles(
+					List.of("Step of the production process 35min", "Step maintenance"), 
+					null, 
+					new PlanListener() {
+						
+						@Override
+						public void onProgress(PlanProgress progress) {
+							threads.add(Thread.currentThread());
+						}
+					}
+				);
+			
+			assertEquals(1, response.getAssemblyLines().size());
+			assertFalse(threads.isEmpty());
+			
+			for (Thread thread : threads) {
+				assertTrue(thread instanceof ForkJoinWorkerThread);
+				assertSame(solverForkJoinPool, ((ForkJoinWorkerThread) thread).getPool());
+			}
+		} finally {
+			threadsProperties.setMode(mode);
+		}
+	}
+	
+	@Test(expected = ProcessException.class)
+	public void shouldKeepTheErrorOfTheSolverWhenTheRequestsUseVirtualThreads() {
+		ThreadsProperties.Mode mode = threadsProperties.getMode();
+		
+		try {
+			threadsProperties.setMode(ThreadsProperties.Mode.VIRTUAL);
+			
+			service.processTitles(List.of("Step of the production process 600min"), null);
+		} finally {
+			threadsProperties.setMode(mode);
+		}
+	}
 
 }
@@ -1,11 +1,13 @@
 package br.com.neogrid.challenge.domain.service;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
 
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
@@ -15,9 +17,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import br.com.neogrid.challenge.core.solver.SolverProperties;
 import br.com.neogrid.challenge.core.storage.PeriodProperties;
 import br.com.neogrid.challenge.domain.exception.ProcessException;
 import br.com.neogrid.challenge.domain.model.AssemblyLine;
+import br.com.neogrid.challenge.domain.model.AssemblyPlan;
+import br.com.neogrid.challenge.domain.model.PlanProgress;
 import br.com.neogrid.challenge.domain.model.Step;
 
 @RunWith(SpringRunner.class)
@@ -31,6 +36,9 @@ public class ProcessStepsServiceTest {
 	@Autowired
 	private PeriodProperties periodProperties;
 	
+	@Autowired
+	private SolverProperties solverProperties;
+	
 	@Test(expected = ProcessException.class)
 	public void shouldFailWhenFileStorageIsNull() {
 		service.generateAssemblyLine(null);
@@ -62,6 +70,129 @@ public class ProcessStepsServiceTest {
 		assertFalse(assemblyLines.isEmpty());
 	}
 
+	@Test
+	public void shouldGenerateTwoAssemblyLinesWhenStepsOnlyFitInTheAfternoon() {
+		List<String> titles = new ArrayList<>();
+		
+		SolverProperties.Mode mode = solverProperties.getMode();
+		
+		titles.add("Step one of the production process 200min");
+		titles.add("Step two of the production process 200min");
+		
+		try {
+			solverProperties.setMode(SolverProperties.Mode.BRANCH_AND_BOUND);
+			
+			List<AssemblyLine> assemblyLines = service.generateAssemblyLine(titles);
+			
+			assertEquals(2, assemblyLines.size());
+		} finally {
+			solverProperties.setMode(mode);
+		}
+	}
+
+	@Test
+	public void shouldGenerateOptimalPlanWhenStepsFitInTheLowerBound() {
+		List<String> titles = new ArrayList<>();
+		
+		titles.add("Step one of the production process 60min");
+		titles.add("Step two of the production process 45min");
+		titles.add("Step maintenance of the production process");
+		
+		AssemblyPlan plan = service.generatePlan(titles);
+		
+		assertEquals(1, plan.getAssemblyLines().size());
+		assertTrue(plan.isOptimal());
+	}
+
+	@Test
+	public void shouldPlaceAllStepsWhenSolvingByDurationHistogram() {
+		List<String> titles = new ArrayList<>();
+		SolverProperties.Mode mode = solverProperties.getMode();
+		
+		for (int index = 0; index < 14; index++) {
+			titles.add("Step of the production process 60min");
+		}
+		
+		try {
+			solverProperties.setMode(SolverProperties.Mode.DURATION_HISTOGRAM);
+			
+			AssemblyPlan plan = service.generatePlan(titles);
+			
+			assertEquals(2, plan.getAssemblyLines().size());
+			assertEquals(7 + 2, plan.getAssemblyLines().get(0).getSteps().size());
+			assertEquals(LocalTime.of(14, 0), plan.getAssemblyLines().get(1).getSteps().get(5).getTime());
+		} finally {
+			solverProperties.setMode(mode);
+		}
+	}
+	
+	@Test
+	public void shouldKeepTheUntouchedAssemblyLinesWhenReplanning() {
+		List<String> titles = new ArrayList<>();
+		
+		for (int index = 0; index < 60; index++) {
+			titles.add("Step of the production process 60min");
+		}
+		
+		List<AssemblyLine> assemblyLines = service.generateAssemblyLine(titles);
+		
+		AssemblyPlan plan = service.replan(
+				assemblyLines, 
+				List.of("Step of the production process 45min"), 
+				List.of("Step of the production process 60min")
+			);
+		
+		assertEquals(assemblyLines.size(), plan.getAssemblyLines().size());
+		assertSame(assemblyLines.get(4), plan.getAssemblyLines().get(4));
+		assertEquals(60, this.countSteps(plan.getAssemblyLines()));
+	}
+	
+	@Test
+	public void shouldAppendAssemblyLineWhenTheAddedStepsDoNotFit() {
+		List<String> titles = new ArrayList<>();
+		
+		for (int index = 0; index < 7; index++) {
+			titles.add("Step of the production process 60min");
+		}
+		
+		List<AssemblyLine> assemblyLines = service.generateAssemblyLine(titles);
+		
+		AssemblyPlan plan = service.replan(assemblyLines, List.of("Step of the production process 60min"), null);
+		
+		assertEquals(2, plan.getAssemblyLines().size());
+		assertEquals(Integer.valueOf(2), plan.getAssemblyLines().get(1).getNumber());
+		assertEquals(8, this.countSteps(plan.getAssemblyLines()));
+	}
+	
+	@Test(expected = ProcessException.class)
+	public void shouldFailWhenTheRemovedStepIsNotInTheAssemblyLines() {
+		List<String> titles = new ArrayList<>();
+		
+		titles.add("Step of the production process 60min");
+		
+		List<AssemblyLine> assemblyLines = service.generateAssemblyLine(titles);
+		
+		service.replan(assemblyLines, null, List.of("Step of the production process 30min"));
+	}
+	
+	@Test
+	public void shouldDropTheAssemblyLinesLeftWithoutStepsWhenReplanning() {
+		List<String> titles = new ArrayList<>();
+		
+		for (int index = 0; index < 8; index++) {
+			titles.add("Step of the production process 60min");
+		}
+		
+		List<AssemblyLine> assemblyLines = service.generateAssemblyLine(titles);
+		
+		AssemblyPlan plan = service.replan(assemblyLines, null, Collections.nCopies(5, "Step of the production process 60min"));
+		
+		assertEquals(1, plan.getAssemblyLines().size());
+		assertEquals(Integer.valueOf(1), plan.getAssemblyLines().get(0).getNumber());
+		assertEquals(3, this.countSteps(plan.getAssemblyLines()));
+		assertTrue(plan.isOptimal());
+	}
+	
 	@Test
 	public void shouldReturn2WhenNumberStepsNeedsTwoAssemblyLines() {
 		List<Step> steps = new ArrayList<>();
@@ -234,4 +365,42 @@ public class ProcessStepsServiceTest {
 		
 		assertEquals(totalPeriod, total);
 	}
+	
+	@Test
+	public void shouldReportTheProgressAndEachAssemblyLine() {
+		List<String> titles = new ArrayList<>();
+		List<PlanProgress> progress = new ArrayList<>();
+		List<AssemblyLine> published = new ArrayList<>();
+		
+		for (int index = 0; index < 10; index++) {
+			titles.add("Step of the production process 60min");
+		}
+		
+		AssemblyPlan plan = service.generatePlan(titles, new PlanListener() {
+			
+			@Override
+			public void onProgress(PlanProgress item) {
+				progress.add(item);
+			}
+			
+			@Override
+			public void onAssemblyLine(AssemblyLine assemblyLine) {
+				published.add(assemblyLine);
+			}
+		});
+		
+		assertEquals(plan.getAssemblyLines(), published);
+		assertEquals(Integer.valueOf(10), progress.get(0).getStepsLeft());
+		assertEquals(Integer.valueOf(0), progress.get(progress.size() - 1).getStepsLeft());
+		assertEquals(Integer.valueOf(published.size()), progress.get(progress.size() - 1).getLinesClosed());
+	}
+	
+	private long countSteps(List<AssemblyLine> assemblyLines) {
+		return assemblyLines.stream()
+				.flatMap(assemblyLine -> assemblyLine.getSteps().stream())
+				.filter(step -> !ProcessStepsService.STEP_TITLE_LUNCH.equals(step.getTitle())
+						&& !ProcessStepsService.STEP_TITLE_LABOR_GYM.equals(step.getTitle()))
+				.count();
+	}
+
 }
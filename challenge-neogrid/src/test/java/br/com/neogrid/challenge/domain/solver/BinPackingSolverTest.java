@@ -0,0 +1,103 @@
+package br.com.neogrid.challenge.domain.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import br.com.neogrid.challenge.domain.solver.BinPackingSolver.Packing;
+
+public class BinPackingSolverTest {
+	
+	private BinPackingSolver solver = new BinPackingSolver(180, 240, 1_000_000L);
+	
+	@Test
+	public void shouldReturnTwoLinesWhenTwoStepsOnlyFitInTheAfternoon() {
+		Packing packing = solver.solve(new int[] {200, 200});
+		
+		assertEquals(2, packing.getLines());
+		assertEquals(BinPackingSolver.AFTERNOON, packing.getPeriodOf()[0]);
+		assertEquals(BinPackingSolver.AFTERNOON, packing.getPeriodOf()[1]);
+		assertTrue(packing.isOptimal());
+	}
+	
+	@Test
+	public void shouldReturnOneLineWhenStepsFillBothPeriodsExactly() {
+		Packing packing = solver.solve(new int[] {60, 60, 60, 60, 60, 60, 60});
+		
+		assertEquals(1, packing.getLines());
+	}
+	
+	@Test
+	public void shouldReturnLowerBoundGreaterThanTotalTimeWhenStepsCannotShareBins() {
+		//Three steps of 130 minutes never share a bin, so 420 minutes are not enough for them.
+		assertEquals(2, solver.lowerBound(new int[] {130, 130, 130}));
+	}
+	
+	@Test
+	public void shouldNotExceedThePeriodsOfAnyLine() {
+		Random random = new Random(11);
+		int[] durations = new int[5000];
+		
+		for (int index = 0; index < durations.length; index++) {
+			durations[index] = 5 + random.nextInt(12) * 5;
+		}
+		
+		Packing packing = solver.solve(durations);
+		int[][] totals = new int[packing.getLines()][2];
+		
+		for (int index = 0; index < durations.length; index++) {
+			totals[packing.getLineOf()[index]][packing.getPeriodOf()[index]] += durations[index];
+		}
+		
+		for (int[] total : totals) {
+			assertTrue(total[BinPackingSolver.MORNING] <= 180);
+			assertTrue(total[BinPackingSolver.AFTERNOON] <= 240);
+		}
+		assertEquals(packing.getLowerBound(), packing.getLines());
+	}
+	
+	@Test
+	public void shouldNotReturnMoreLinesThanTheBestFitWhenSearchingInParallel() {
+		Random random = new Random(13);
+		int[] durations = new int[3000];
+		ForkJoinPool pool = new ForkJoinPool(4);
+		
+		for (int index = 0; index < durations.length; index++) {
+			durations[index] = 1 + random.nextInt(240);
+		}
+		
+		try {
+			//The parallel search may stop on a different packing, only the best-fit decreasing one bounds both searches.
+			Packing bestFit = solver.solve(durations, () -> true);
+			Packing parallel = solver.solve(durations, pool);
+			
+			assertEquals(bestFit.getLowerBound(), parallel.getLowerBound());
+			assertTrue(parallel.getLines() <= bestFit.getLines());
+			assertTrue(parallel.getLines() >= parallel.getLowerBound());
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	@Test
+	public void shouldReturnTheBestPackingFoundWhenTheSearchIsStopped() {
+		BinPackingSolver limited = new BinPackingSolver(180, 240, Long.MAX_VALUE);
+		Random random = new Random(17);
+		int[] durations = new int[20000];
+		
+		for (int index = 0; index < durations.length; index++) {
+			durations[index] = 1 + random.nextInt(240);
+		}
+		
+		//Stopped before the first number of lines below the best-fit decreasing packing is searched.
+		Packing packing = limited.solve(durations, () -> true);
+		
+		assertTrue(packing.getLines() > packing.getLowerBound());
+		assertFalse(packing.isOptimal());
+	}
+}
@@ -0,0 +1,75 @@
+package br.com.neogrid.challenge.domain.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DurationHistogramTest {
+	
+	@Test
+	public void shouldCountTheStepsOfEachDistinctDuration() {
+		int[] durations = {30, 60, 30, 5, 60, 30};
+		
+		DurationHistogram histogram = new DurationHistogram(durations, new int[] {1, 4, 0, 2, 5, 3});
+		
+		assertEquals(3, histogram.distinct());
+		assertEquals(60, histogram.getValue(0));
+		assertEquals(2, histogram.getCount(0));
+		assertEquals(3, histogram.getCount(1));
+		assertEquals(1, histogram.getCount(2));
+	}
+	
+	@Test
+	public void shouldRepeatTheFillWhileThereAreSteps() {
+		int[] durations = {60, 60, 60, 60, 60, 60, 60};
+		
+		DurationHistogram histogram = new DurationHistogram(durations, new int[] {0, 1, 2, 3, 4, 5, 6});
+		int[] chosen = histogram.fill(180);
+		
+		assertArrayEquals(new int[] {3}, chosen);
+		assertEquals(2, histogram.repetitions(chosen));
+	}
+	
+	@Test
+	public void shouldTakeTheStepsInTheOrderInformed() {
+		int[] durations = {30, 30, 30};
+		
+		DurationHistogram histogram = new DurationHistogram(durations, new int[] {2, 0, 1});
+		
+		assertEquals(2, histogram.take(0));
+		assertEquals(0, histogram.take(0));
+		assertEquals(1, histogram.take(0));
+		assertFalse(histogram.hasSteps());
+	}
+	
+	@Test
+	public void shouldReachTheSameTotalOfThePeriodFill() {
+		Random random = new Random(7);
+		
+		for (int attempt = 0; attempt < 200; attempt++) {
+			int[] durations = new int[1 + random.nextInt(20)];
+			
+			for (int index = 0; index < durations.length; index++) {
+				durations[index] = 5 * (1 + random.nextInt(12));
+			}
+			
+			StepPlan stepPlan = new StepPlan(Collections.nCopies(durations.length, "step"), durations);
+			DurationHistogram histogram = new DurationHistogram(durations, stepPlan.orderByDurationDescending());
+			int[] chosen = histogram.fill(180);
+			int total = 0;
+			
+			for (int value = 0; value < histogram.distinct(); value++) {
+				assertFalse(chosen[value] > histogram.getCount(value));
+				total += chosen[value] * histogram.getValue(value);
+			}
+			
+			assertEquals(PeriodFill.total(durations, PeriodFill.fill(durations, 180)), total);
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+package br.com.neogrid.challenge.domain.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PeriodFillTest {
+	
+	@Test
+	public void shouldReturnEmptyWhenDurationsIsNull() {
+		assertEquals(0, PeriodFill.fill(null, 180).length);
+	}
+	
+	@Test
+	public void shouldFillExactlyThePeriodWhenThereIsCombination() {
+		int[] durations = {60, 45, 45, 30, 30, 5};
+		
+		int[] indexes = PeriodFill.fill(durations, 180);
+		
+		assertEquals(180, PeriodFill.total(durations, indexes));
+	}
+	
+	@Test
+	public void shouldReturnTheLongestTotalLessThanThePeriod() {
+		int[] durations = {15, 2, 35, 20};
+		
+		int[] indexes = PeriodFill.fill(durations, 21);
+		
+		assertEquals(20, PeriodFill.total(durations, indexes));
+	}
+	
+	@Test
+	public void shouldIgnoreStepsLongerThanThePeriod() {
+		int[] durations = {200, 250};
+		
+		assertEquals(0, PeriodFill.fill(durations, 180).length);
+	}
+	
+	@Test
+	public void shouldReturnDistinctIndexesInAscendingOrder() {
+		int[] durations = new int[20000];
+		Random random = new Random(7);
+		
+		for (int index = 0; index < durations.length; index++) {
+			durations[index] = 7 + random.nextInt(50) * 7;
+		}
+		
+		int[] indexes = PeriodFill.fill(durations, 240);
+		
+		for (int index = 1; index < indexes.length; index++) {
+			assertTrue(indexes[index - 1] < indexes[index]);
+		}
+		assertEquals(238, PeriodFill.total(durations, indexes));
+	}
+}
@@ -0,0 +1,52 @@
+package br.com.neogrid.challenge.domain.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class StepPlanTest {
+	
+	@Test
+	public void shouldOrderByDurationDescendingKeepingTheOrderOfEqualDurations() {
+		StepPlan stepPlan = new StepPlan(Arrays.asList("a", "b", "c", "d"), new int[] {30, 60, 30, 45});
+		
+		assertArrayEquals(new int[] {1, 3, 0, 2}, stepPlan.orderByDurationDescending());
+	}
+	
+	@Test
+	public void shouldOrderByDurationDescendingWhenThereAreDurationsLongerThanOneDay() {
+		StepPlan stepPlan = new StepPlan(Arrays.asList("a", "b", "c"), new int[] {30, 5000, 30});
+		
+		assertArrayEquals(new int[] {1, 0, 2}, stepPlan.orderByDurationDescending());
+	}
+	
+	@Test
+	public void shouldOrderByLineAndStartOnlyThePlacedSteps() {
+		StepPlan stepPlan = new StepPlan(Arrays.asList("a", "b", "c", "d"), new int[] {30, 60, 30, 45});
+		
+		stepPlan.place(0, 1, 540);
+		stepPlan.place(1, 0, 780);
+		stepPlan.place(2, 0, 540);
+		
+		assertFalse(stepPlan.isComplete());
+		assertArrayEquals(new int[] {2, 1, 0}, stepPlan.orderByLineAndStart());
+		
+		stepPlan.place(3, 1, 570);
+		
+		assertTrue(stepPlan.isComplete());
+		assertEquals(165, stepPlan.getTotalMinutes());
+	}
+	
+	@Test
+	public void shouldConvertTheMinuteOfDay() {
+		assertEquals(990, StepPlan.toMinuteOfDay(LocalTime.of(16, 30)));
+		assertEquals(LocalTime.of(16, 30), StepPlan.toLocalTime(990));
+	}
+
+}
@@ -0,0 +1,89 @@
+package br.com.neogrid.challenge.infrastructure.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import br.com.neogrid.challenge.core.solver.SolverProperties;
+import br.com.neogrid.challenge.domain.output.OutputFormat;
+import br.com.neogrid.challenge.domain.service.PlanCacheService;
+import br.com.neogrid.challenge.domain.service.ProcessFileService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class PlanEventsTest {
+	
+	@Autowired
+	private ProcessFileService processFileService;
+	
+	@Autowired
+	private PlanCacheService planCacheService;
+	
+	@Autowired
+	private SolverProperties solverProperties;
+	
+	@After
+	public void clearCache() {
+		planCacheService.clear();
+	}
+	
+	@Test
+	public void shouldRecordTheFillOfEachPeriodAndTheOutputFile() throws IOException {
+		SolverProperties.Mode mode = solverProperties.getMode();
+		Path file = Files.createTempFile("plan", ".jfr");
+		
+		try (Recording recording = new Recording()) {
+			recording.enable(PeriodFillEvent.class);
+			recording.enable(ParseChunkEvent.class);
+			recording.enable(OutputWriteEvent.class);
+			recording.start();
+			
+			solverProperties.setMode(SolverProperties.Mode.PERIOD_FILL);
+			processFileService.processTitles(List.of("Drilling of the base 60min", "Polishing of the base 30min"), OutputFormat.TEXT);
+			
+			recording.stop();
+			recording.dump(file);
+			
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			List<RecordedEvent> fills = this.filter(events, "br.com.neogrid.challenge.PeriodFill");
+			List<RecordedEvent> chunks = this.filter(events, "br.com.neogrid.challenge.ParseChunk");
+			List<RecordedEvent> writes = this.filter(events, "br.com.neogrid.challenge.OutputWrite");
+			
+			assertTrue(fills.stream().anyMatch(event -> event.getInt("line") == 1 
+					&& PeriodFillEvent.MORNING.equals(event.getString("period"))
+					&& event.getInt("candidates") == 2
+					&& event.getInt("chosenMinutes") == 90));
+			assertEquals(2, chunks.stream().mapToInt(event -> event.getInt("titles")).sum());
+			assertEquals(1, writes.size());
+			assertEquals(1, writes.get(0).getInt("assemblyLines"));
+			assertEquals("TEXT", writes.get(0).getString("format"));
+		} finally {
+			solverProperties.setMode(mode);
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	private List<RecordedEvent> filter(List<RecordedEvent> events, String name) {
+		return events.stream()
+				.filter(event -> name.equals(event.getEventType().getName()))
+				.collect(Collectors.toList());
+	}
+
+}
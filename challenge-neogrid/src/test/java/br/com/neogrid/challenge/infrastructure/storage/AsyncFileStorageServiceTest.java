@@ -0,0 +1,229 @@
+package br.com.neogrid.challenge.infrastructure.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.neogrid.challenge.core.metrics.PlanMetrics;
+import br.com.neogrid.challenge.core.storage.StorageProperties;
+import br.com.neogrid.challenge.domain.service.FileStorageService;
+import br.com.neogrid.challenge.domain.service.FileStorageService.OutputChannel;
+import br.com.neogrid.challenge.domain.service.FileStorageService.StreamStorage;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "challenge.storage.write-behind.enabled=true")
+@ActiveProfiles("test")
+public class AsyncFileStorageServiceTest {
+	
+	@Autowired
+	private FileStorageService service;
+	
+	@Autowired
+	private StorageProperties storageProperties;
+	
+	@Autowired
+	private LocalFileStorageService localFileStorageService;
+	
+	@Autowired
+	private PlanMetrics planMetrics;
+	
+	@Test
+	public void shouldWriteTheFileBehindTheSave() throws IOException {
+		assertTrue(service instanceof AsyncFileStorageService);
+		
+		byte[] content = "Linha de montagem 1:\n09:00 Step one 60min\n".getBytes(StandardCharsets.UTF_8);
+		StreamStorage file = StreamStorage.builder()
+				.name("async-save.txt")
+				.stream(new ByteArrayInputStream(content))
+				.build();
+		
+		CompletableFuture<StreamStorage> written = service.saveAsync(file);
+		
+		assertSame(file, written.join());
+		assertArrayEquals(content, Files.readAllBytes(Path.of(file.getPath())));
+		
+		try (InputStream stream = file.getStream()) {
+			assertArrayEquals(content, stream.readAllBytes());
+		}
+		
+		Files.deleteIfExists(Path.of(file.getPath()));
+	}
+	
+	@Test
+	public void shouldWriteTheChannelWhenItIsClosed() throws IOException {
+		StreamStorage file = StreamStorage.builder()
+				.name("async-create.txt")
+				.build();
+		
+		try (OutputChannel channel = service.create(file)) {
+			channel.write(ByteBuffer.wrap("Step one ".getBytes(StandardCharsets.UTF_8)));
+			channel.write(ByteBuffer.allocateDirect(5).put("60min".getBytes(StandardCharsets.UTF_8)).flip());
+			channel.commit();
+		}
+		
+		file.getWritten().join();
+		
+		assertEquals("Step one 60min", Files.readString(Path.of(file.getPath()), StandardCharsets.UTF_8));
+		
+		Files.deleteIfExists(Path.of(file.getPath()));
+	}
+	
+	@Test
+	public void shouldWriteTheChannelOnTheWriteBehindThread() throws IOException {
+		StreamStorage file = StreamStorage.builder()
+				.name("async-temporary.txt")
+				.build();
+		Path path;
+		Path temporary;
+		
+		try (OutputChannel channel = service.create(file)) {
+			path = Path.of(file.getPath());
+			temporary = Path.of(file.getPath() + ".part");
+			
+			channel.write(ByteBuffer.wrap("Step one 60min".getBytes(StandardCharsets.UTF_8)));
+			
+			//The bytes wait in the chunk of the channel, the request thread does not touch the disk.
+			assertFalse(Files.exists(temporary));
+			assertFalse(Files.exists(path));
+			
+			channel.commit();
+		}
+		
+		file.getWritten().join();
+		
+		assertEquals("Step one 60min", Files.readString(path, StandardCharsets.UTF_8));
+		assertFalse(Files.exists(temporary));
+		
+		Files.deleteIfExists(path);
+	}
+	
+	@Test
+	public void shouldWriteTheChunksOfTheChannelInOrder() throws IOException {
+		byte[] content = new byte[200_000];
+		StreamStorage file = StreamStorage.builder()
+				.name("async-chunks.bin")
+				.build();
+		
+		for (int index = 0; index < content.length; index++) {
+			content[index] = (byte) index;
+		}
+		
+		try (OutputChannel channel = service.create(file)) {
+			channel.write(ByteBuffer.wrap(content, 0, 1000));
+			channel.write(ByteBuffer.wrap(content, 1000, content.length - 1000));
+			channel.commit();
+		}
+		
+		file.getWritten().join();
+		
+		assertArrayEquals(content, Files.readAllBytes(Path.of(file.getPath())));
+		
+		Files.deleteIfExists(Path.of(file.getPath()));
+	}
+	
+	@Test
+	public void shouldDiscardTheChannelClosedWithoutCommit() throws IOException {
+		StreamStorage file = StreamStorage.builder()
+				.name("async-discarded.txt")
+				.build();
+		
+		try (OutputChannel channel = service.create(file)) {
+			//Larger than a chunk, so part of the file reaches the temporary file before it is discarded.
+			channel.write(ByteBuffer.wrap(new byte[100_000]));
+		}
+		
+		try {
+			file.getWritten().join();
+			fail("The channel was not committed.");
+		} catch (CompletionException ex) {
+			assertTrue(ex.getCause() instanceof StorageException);
+		}
+		
+		assertFalse(Files.exists(Path.of(file.getPath())));
+		assertFalse(Files.exists(Path.of(file.getPath() + ".part")));
+	}
+	
+	@Test
+	public void shouldFailTheWritesWhenTheStorageIsShutDown() throws InterruptedException {
+		AsyncFileStorageService stopped = new AsyncFileStorageService();
+		
+		ReflectionTestUtils.setField(stopped, "storageProperties", storageProperties);
+		ReflectionTestUtils.setField(stopped, "localFileStorageService", localFileStorageService);
+		ReflectionTestUtils.setField(stopped, "planMetrics", planMetrics);
+		
+		stopped.start();
+		stopped.shutdown();
+		
+		StreamStorage file = StreamStorage.builder()
+				.name("async-stopped.txt")
+				.build();
+		
+		try {
+			OutputChannel channel = stopped.create(file);
+			
+			channel.commit();
+			channel.close();
+			fail("The storage is shut down.");
+		} catch (StorageException | IOException ex) {
+			assertTrue(file.getWritten().isCompletedExceptionally());
+		}
+		
+		try (InputStream stream = file.getStream()) {
+			stream.read();
+			fail("The file was not written.");
+		} catch (IOException ex) {
+			assertFalse(Files.exists(Path.of(file.getPath() + ".part")));
+		}
+	}
+	
+	@Test
+	public void shouldWriteAllFilesOfTheBatches() throws IOException {
+		List<StreamStorage> files = new ArrayList<>();
+		
+		for (int index = 0; index < 40; index++) {
+			StreamStorage file = StreamStorage.builder()
+					.name("async-batch-" + index + ".txt")
+					.stream(new ByteArrayInputStream(String.valueOf(index).getBytes(StandardCharsets.UTF_8)))
+					.build();
+			
+			service.save(file);
+			files.add(file);
+		}
+		
+		CompletableFuture.allOf(files.stream()
+				.map(StreamStorage::getWritten)
+				.toArray(CompletableFuture[]::new))
+			.join();
+		
+		for (int index = 0; index < files.size(); index++) {
+			Path path = Path.of(files.get(index).getPath());
+			
+			assertEquals(String.valueOf(index), Files.readString(path, StandardCharsets.UTF_8));
+			Files.deleteIfExists(path);
+		}
+	}
+
+}
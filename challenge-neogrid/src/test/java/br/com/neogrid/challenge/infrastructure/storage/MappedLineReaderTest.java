@@ -0,0 +1,74 @@
+package br.com.neogrid.challenge.infrastructure.storage;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedLineReaderTest {
+	
+	private Path file;
+	
+	@Before
+	public void createFile() throws IOException {
+		file = Files.createTempFile("input", ".txt");
+	}
+	
+	@After
+	public void deleteFile() throws IOException {
+		Files.deleteIfExists(file);
+	}
+	
+	@Test
+	public void shouldReadAllLinesWithTheirNumbers() throws IOException {
+		Files.write(file, "Step one 60min\r\n\nStep two 45min".getBytes(Charset.defaultCharset()));
+		
+		List<String> lines = new ArrayList<>();
+		
+		MappedLineReader.forEachLine(file, (line, lineNumber) -> lines.add(lineNumber + ":" + line));
+		
+		assertEquals(List.of("1:Step one 60min", "2:", "3:Step two 45min"), lines);
+	}
+	
+	@Test
+	public void shouldReadTheLinesThatCrossTheWindows() throws IOException {
+		Files.write(file, "Step one 60min\nStep two 45min\nStep maintenance\n".getBytes(Charset.defaultCharset()));
+		
+		List<String> lines = new ArrayList<>();
+		
+		MappedLineReader.forEachLine(file, 20, (line, lineNumber) -> lines.add(line));
+		
+		assertEquals(List.of("Step one 60min", "Step two 45min", "Step maintenance"), lines);
+	}
+	
+	@Test(expected = StorageException.class)
+	public void shouldFailWhenTheLineIsLongerThanTheWindow() throws IOException {
+		Files.write(file, "Step of the production process 60min\nStep 30min".getBytes(Charset.defaultCharset()));
+		
+		MappedLineReader.forEachLine(file, 10, (line, lineNumber) -> {});
+	}
+	
+	@Test
+	public void shouldSplitTheFileAtTheLineBreaks() throws IOException {
+		Files.write(file, "Step one 60min\nStep two 45min\nStep three 30min\n".getBytes(Charset.defaultCharset()));
+		
+		long[] bounds = MappedLineReader.split(file, 3);
+		List<String> lines = new ArrayList<>();
+		
+		for (int chunk = 0; chunk + 1 < bounds.length; chunk++) {
+			MappedLineReader.forEachLine(file, bounds[chunk], bounds[chunk + 1], (line, lineNumber) -> lines.add(line));
+		}
+		
+		assertEquals(Files.size(file), bounds[bounds.length - 1]);
+		assertEquals(List.of("Step one 60min", "Step two 45min", "Step three 30min"), lines);
+	}
+
+}